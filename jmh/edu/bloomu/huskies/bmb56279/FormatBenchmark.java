@@ -0,0 +1,47 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of formatting a schedule the way Main prints it, for SRTF schedules
+ * of synthetic work loads of varying size.
+ *
+ * @author Brett Bernardi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Timeline timeline;
+
+    @Setup
+    public void simulate() {
+        Scheduler scheduler = new Scheduler(new WorkloadGenerator(0.09,
+                BurstDistribution.EXPONENTIAL, 10, 42).generate(this.size),
+                SchedulingType.SRTF, SimulationEngine.EVENT_DRIVEN);
+        scheduler.simulate();
+        this.timeline = scheduler.getTimeline();
+    }
+
+    @Benchmark
+    public String format() {
+        return this.timeline.format(ProcessNames.DEFAULT);
+    }
+}
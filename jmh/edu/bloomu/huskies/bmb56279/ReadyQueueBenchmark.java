@@ -0,0 +1,63 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmark of the ready queue comparators: fills a PriorityQueue with every
+ * process of a synthetic work load, then empties it, the way the FCFS and SJF
+ * schedulers use it.
+ *
+ * @author Brett Bernardi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadyQueueBenchmark {
+    @Param({"FCFS", "SJF"})
+    public String comparator;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Process[] processes;
+
+    @Setup
+    public void generate() {
+        Workload workLoad = new WorkloadGenerator(0.09, BurstDistribution.EXPONENTIAL,
+                10, 42).generate(this.size);
+        this.processes = new Process[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.processes[i] = new Process(i, workLoad.getArrivalTime(i),
+                    workLoad.getBursts(i));
+        }
+    }
+
+    @Benchmark
+    public void fillAndDrain(Blackhole blackhole) {
+        PriorityQueue<Process> queue = new PriorityQueue<>(
+                this.comparator.equals("FCFS") ? new FCFSComparator()
+                        : new SJFComparator());
+        for (Process p : this.processes) {
+            queue.add(p);
+        }
+        while (!queue.isEmpty()) {
+            blackhole.consume(queue.poll());
+        }
+    }
+}
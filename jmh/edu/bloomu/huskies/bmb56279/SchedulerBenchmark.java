@@ -0,0 +1,176 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * A quick sweep of the scheduling engines in a single JVM, for a first look at a
+ * change to the hot paths without the JMH runner; SimulateBenchmark and the other JMH
+ * benchmarks are the ones to judge a change by. For every combination of engine,
+ * scheduling type, work load size, mean burst length and arrival density, it
+ * generates a synthetic work load with a WorkloadGenerator, warms the JIT up on it,
+ * and then times repeated calls to simulate(). It also times formatting the resulting
+ * Timeline the way Main prints it.
+ *
+ * For each combination it reports:
+ *      - throughput, in simulations per second
+ *      - the cost per process, in nanoseconds, which shows how each engine scales as
+ *        the work load grows (rows for the same engine and type form a scaling curve)
+ *      - the number of bytes allocated per simulation, and the number of garbage
+ *        collections and total collection time during the measurement
+ *
+ * The tick engine's cost grows with the total execution time, so combinations whose
+ * total execution time would make it take minutes are skipped for it.
+ *
+ * Run it after gradle jmhClasses with:
+ *      java -cp build/classes/java/main:build/classes/java/jmh
+ *          edu.bloomu.huskies.bmb56279.SchedulerBenchmark [quick]
+ *
+ * @author Brett Bernardi
+ */
+public class SchedulerBenchmark {
+    // the tick engine is skipped when the expected total execution time is larger
+    private static final double TICK_LIMIT = 20_000_000;
+    // minimum time spent warming up and measuring each combination, in nanoseconds
+    private static final long WARMUP_NANOS = 500_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    public static void main(String[] args) {
+        boolean quick = args.length > 0 && args[0].equalsIgnoreCase("quick");
+        int[] sizes = quick ? new int[] {1_000, 10_000}
+                : new int[] {1_000, 10_000, 100_000, 1_000_000};
+        double[] meanBursts = quick ? new double[] {10} : new double[] {10, 1_000};
+        // load = arrival rate * mean burst: the fraction of time the CPU is busy
+        double[] loads = quick ? new double[] {0.9} : new double[] {0.5, 0.9, 0.99};
+        long seed = 42;
+
+        System.out.printf("%-12s %-6s %9s %7s %5s %12s %12s %14s %5s %8s%n", "engine",
+                "type", "processes", "burst", "load", "sims/s", "ns/process",
+                "bytes/sim", "gcs", "gc ms");
+        for (SimulationEngine engine : SimulationEngine.values()) {
+            for (SchedulingType type : SchedulingType.values()) {
+                for (double meanBurst : meanBursts) {
+                    for (double load : loads) {
+                        for (int size : sizes) {
+                            if (engine == SimulationEngine.TICK
+                                    && size * meanBurst > TICK_LIMIT) {
+                                continue;
+                            }
+                            Workload workLoad = new WorkloadGenerator(load / meanBurst,
+                                    BurstDistribution.EXPONENTIAL, meanBurst, seed)
+                                    .generate(size);
+                            run(engine, type, workLoad, meanBurst, load);
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-12s %9s %12s %14s%n", "format", "segments", "ns/segment",
+                "bytes/format");
+        for (int size : sizes) {
+            Scheduler scheduler = new Scheduler(new WorkloadGenerator(0.09,
+                    BurstDistribution.EXPONENTIAL, 10, seed).generate(size),
+                    SchedulingType.SRTF, SimulationEngine.EVENT_DRIVEN);
+            scheduler.simulate();
+            Timeline timeline = scheduler.getTimeline();
+            Measurement m = measure(() -> format(timeline).length());
+            System.out.printf("%-12s %9d %12.1f %14d%n", "timeline", timeline.size(),
+                    m.nanosPerOp / timeline.size(), m.bytesPerOp);
+        }
+    }
+
+    // Times one combination and prints a row of the report.
+    private static void run(SimulationEngine engine, SchedulingType type,
+                            Workload workLoad, double meanBurst, double load) {
+        Measurement m = measure(() -> {
+            Scheduler scheduler = new Scheduler(workLoad, type, engine);
+            scheduler.simulate();
+            return scheduler.getTimeline().size();
+        });
+        System.out.printf("%-12s %-6s %9d %7.0f %5.2f %12.1f %12.1f %14d %5d %8d%n",
+                engine, type, workLoad.size(), meanBurst, load, 1e9 / m.nanosPerOp,
+                m.nanosPerOp / workLoad.size(), m.bytesPerOp, m.gcCount, m.gcMillis);
+    }
+
+    // Formats a timeline the way Main prints it, into a StringBuilder.
+    private static StringBuilder format(Timeline timeline) {
+        return new StringBuilder(timeline.format(ProcessNames.DEFAULT));
+    }
+
+    // Warms up, then runs the operation repeatedly for at least MEASURE_NANOS and
+    // returns the average time and allocation per run.
+    private static Measurement measure(Operation operation) {
+        long sink = 0;
+        long end = System.nanoTime() + WARMUP_NANOS;
+        do {
+            sink += operation.run();
+        } while (System.nanoTime() < end);
+
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        long bytes = allocatedBytes();
+        long ops = 0;
+        long start = System.nanoTime();
+        end = start + MEASURE_NANOS;
+        long now;
+        do {
+            sink += operation.run();
+            ops++;
+            now = System.nanoTime();
+        } while (now < end);
+
+        Measurement m = new Measurement();
+        m.nanosPerOp = (double) (now - start) / ops;
+        m.bytesPerOp = (allocatedBytes() - bytes) / ops;
+        m.gcCount = gcCount() - gcCount;
+        m.gcMillis = gcMillis() - gcMillis;
+        // keep the JIT from eliminating the work
+        if (sink == Long.MIN_VALUE) {
+            System.out.println(sink);
+        }
+        return m;
+    }
+
+    // Bytes allocated by this thread so far, or 0 if the JVM can't tell.
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean
+                : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean
+                : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis;
+    }
+
+    // An operation being timed. Returns a value so its work can't be optimized away.
+    private interface Operation {
+        long run();
+    }
+
+    // The results of timing an operation.
+    private static class Measurement {
+        double nanosPerOp;
+        long bytesPerOp;
+        long gcCount;
+        long gcMillis;
+    }
+}
@@ -0,0 +1,62 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of Scheduler.simulate(): every engine and SchedulingType over
+ * synthetic work loads from a WorkloadGenerator, of varying size, mean burst length
+ * and load (the fraction of time the CPU is busy, which sets the arrival density).
+ * Throughput is reported in simulations per second; run with the gc profiler, as the
+ * build does, for the allocation rate. The results for the same engine and type over
+ * the sizes form its scaling curve.
+ *
+ * @author Brett Bernardi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulateBenchmark {
+    @Param
+    public SimulationEngine engine;
+
+    @Param
+    public SchedulingType type;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"10", "100"})
+    public double meanBurst;
+
+    @Param({"0.5", "0.9", "0.99"})
+    public double load;
+
+    private Workload workLoad;
+
+    @Setup
+    public void generate() {
+        this.workLoad = new WorkloadGenerator(this.load / this.meanBurst,
+                BurstDistribution.EXPONENTIAL, this.meanBurst, 42).generate(this.size);
+    }
+
+    @Benchmark
+    public Scheduler simulate() {
+        Scheduler scheduler = new Scheduler(this.workLoad, this.type, this.engine);
+        scheduler.simulate();
+        return scheduler;
+    }
+}
@@ -0,0 +1,19 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * Enum that lists the random processes a WorkloadGenerator can draw arrival times
+ * from. Every one of them is parameterized by its mean rate of arrivals per unit of
+ * time; they differ in how the arrivals are spread out around that mean.
+ *
+ * @author Brett Bernardi
+ */
+public enum ArrivalProcess {
+    // Poisson arrivals: the time between two arrivals is exponentially distributed
+    POISSON,
+    // The time between two arrivals is Pareto distributed: mostly short gaps, with
+    // occasional very long quiet periods
+    PARETO,
+    // A two state Markov-modulated Poisson process: arrivals come in bursts at a high
+    // rate, separated by stretches at a low rate
+    MMPP
+}
@@ -0,0 +1,32 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * An interface for anything that can hand processes to a StreamingScheduler one at a
+ * time, in order of arrival, instead of as a whole work load up front. A source starts
+ * positioned before its first process; each call to advance() moves it to the next
+ * process, whose arrival time and burst length can then be read.
+ *
+ * @author Brett Bernardi
+ */
+public interface ArrivalSource {
+
+    /**
+     * Moves to the next process. Arrival times must never decrease from one process to
+     * the next.
+     * @return boolean - true if there is a next process, false if the source is used up
+     * @throws ImproperArguments - thrown if the next process is not valid
+     */
+    boolean advance() throws ImproperArguments;
+
+    /**
+     * Getter for the arrival time of the current process
+     * @return int - Arrival Time
+     */
+    int getArrivalTime();
+
+    /**
+     * Getter for the burst length of the current process
+     * @return int - Burst Length
+     */
+    int getBurstLength();
+}
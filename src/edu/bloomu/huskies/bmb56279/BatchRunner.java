@@ -0,0 +1,87 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A class that simulates one work load under several scheduling algorithms at once.
+ * The work load is parsed a single time into an immutable Workload that every
+ * simulation shares, and each algorithm's Scheduler is created and simulated as its own
+ * task on a fork-join pool. Each Scheduler is only ever touched by the thread that runs
+ * its task, so no locking is needed, and comparing all the algorithms takes about as
+ * long as the slowest one rather than the sum of all of them.
+ *
+ * @author Brett Bernardi
+ */
+public class BatchRunner {
+    // The pool the simulations run on
+    private final ForkJoinPool pool;
+    // The engine each Scheduler uses to run its simulation
+    private final SimulationEngine engine;
+    // The tunable parameters every Scheduler uses
+    private final SchedulerConfig config;
+
+    /**
+     * Constructor that runs simulations on the common fork-join pool, which has one
+     * thread per available core, with the event-driven engine.
+     */
+    public BatchRunner() {
+        this(ForkJoinPool.commonPool(), SimulationEngine.EVENT_DRIVEN);
+    }
+
+    /**
+     * Constructor that runs simulations on the given pool with the given engine.
+     * @param pool - the pool the simulations run on
+     * @param engine - the engine(enum) each Scheduler uses
+     */
+    public BatchRunner(ForkJoinPool pool, SimulationEngine engine) {
+        this(pool, engine, new SchedulerConfig());
+    }
+
+    /**
+     * Constructor that runs simulations on the given pool with the given engine and
+     * tunable parameters. The config is shared by every simulation, so it must not be
+     * changed while they are running.
+     * @param pool - the pool the simulations run on
+     * @param engine - the engine(enum) each Scheduler uses
+     * @param config - the tunable parameters every Scheduler uses
+     */
+    public BatchRunner(ForkJoinPool pool, SimulationEngine engine,
+                       SchedulerConfig config) {
+        this.pool = pool;
+        this.engine = engine;
+        this.config = config;
+    }
+
+    /**
+     * Simulates the work load under every given type of scheduling concurrently, and
+     * waits for all of them to finish.
+     * @param workLoad - the work load to simulate
+     * @param types - the types of scheduling(enum) to simulate
+     * @return Map - the simulated Scheduler for each type, from which the schedule and
+     * average waiting time can be retrieved
+     */
+    public Map<SchedulingType, Scheduler> simulate(Workload workLoad,
+                                                   Collection<SchedulingType> types) {
+        List<ForkJoinTask<Scheduler>> tasks = new ArrayList<>();
+        for (SchedulingType type : types) {
+            tasks.add(this.pool.submit(() -> {
+                Scheduler scheduler = new Scheduler(workLoad, type, this.engine,
+                        this.config);
+                scheduler.simulate();
+                return scheduler;
+            }));
+        }
+        Map<SchedulingType, Scheduler> results = new EnumMap<>(SchedulingType.class);
+        for (ForkJoinTask<Scheduler> task : tasks) {
+            Scheduler scheduler = task.join();
+            results.put(scheduler.getType(), scheduler);
+        }
+        return results;
+    }
+}
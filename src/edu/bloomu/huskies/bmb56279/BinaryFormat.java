@@ -0,0 +1,365 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * A class of static methods that write work loads and simulation results to NIO
+ * channels in a compact, versioned binary form, and read them back. Every number is
+ * stored little-endian at a fixed width, so a file can be read back without any
+ * parsing, at close to the speed of the channel.
+ *
+ * A work load file is a 24 byte header followed by one 8 byte record per process:
+ *
+ *      header:  magic "CPUW" | version (int) | count (long) | CRC32C (int) | 0 (int)
+ *      record:  arrival time (int) | burst length (int)
+ *
+ * A result file is a 40 byte header, followed by one 20 byte record per Timeline
+ * segment, followed by one 24 byte record per process:
+ *
+ *      header:  magic "CPUR" | version (int) | type ordinal (int) | 0 (int) |
+ *               segment count (long) | process count (long) | CRC32C (int) | 0 (int)
+ *      segment: process ID (int) | start (long) | length (long)
+ *      process: waiting time (long) | turnaround time (long) | response time (long)
+ *
+ * The checksum covers every byte after the header. A file with the wrong magic
+ * number, an unknown version, or a checksum that doesn't match is rejected with an
+ * ImproperArguments exception, just like invalid user input.
+ *
+ * @author Brett Bernardi
+ */
+public final class BinaryFormat {
+    // "CPUW" and "CPUR" read as little-endian ints
+    static final int WORKLOAD_MAGIC = 0x57555043;
+    static final int RESULT_MAGIC = 0x52555043;
+    // the current version of both formats
+    static final int VERSION = 1;
+    static final int WORKLOAD_HEADER_SIZE = 24;
+    static final int WORKLOAD_RECORD_SIZE = 8;
+    static final int RESULT_HEADER_SIZE = 40;
+    static final int SEGMENT_RECORD_SIZE = 20;
+    static final int PROCESS_RECORD_SIZE = 24;
+    // size of the buffer records are staged in on their way to or from a channel
+    static final int BUFFER_SIZE = 1 << 16;
+
+    // no instances
+    private BinaryFormat() {
+    }
+
+    /**
+     * Writes a work load to a channel. The format holds a single CPU burst per process
+     * and no priorities, so a work load with I/O bursts or priorities is rejected.
+     * @param channel - the channel to write to
+     * @param workLoad - the work load to write
+     * @throws IOException - thrown if the channel can't be written
+     */
+    public static void writeWorkload(WritableByteChannel channel, Workload workLoad)
+            throws IOException {
+        if (workLoad.hasIO()) {
+            throw new IllegalArgumentException("Work loads with I/O bursts can't be " +
+                    "written in version " + VERSION + " of the format");
+        }
+        if (workLoad.hasPriorities()) {
+            throw new IllegalArgumentException("Work loads with priorities can't be " +
+                    "written in version " + VERSION + " of the format");
+        }
+        ByteBuffer buffer = newBuffer();
+        // The checksum goes in the header, so it is computed in a first pass
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < workLoad.size(); i++) {
+            if (buffer.remaining() < WORKLOAD_RECORD_SIZE) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+            buffer.putInt(workLoad.getArrivalTime(i)).putInt(workLoad.getBurstLength(i));
+        }
+        buffer.flip();
+        crc.update(buffer);
+        buffer.clear();
+
+        writeWorkloadHeader(buffer, workLoad.size(), (int) crc.getValue());
+        for (int i = 0; i < workLoad.size(); i++) {
+            if (buffer.remaining() < WORKLOAD_RECORD_SIZE) {
+                drain(channel, buffer);
+            }
+            buffer.putInt(workLoad.getArrivalTime(i)).putInt(workLoad.getBurstLength(i));
+        }
+        drain(channel, buffer);
+    }
+
+    /**
+     * Reads a whole work load from a channel.
+     * @param channel - the channel to read from
+     * @return Workload - the work load that was read
+     * @throws IOException - thrown if the channel can't be read or ends too soon
+     * @throws ImproperArguments - thrown if the data is not a valid work load
+     */
+    public static Workload readWorkload(ReadableByteChannel channel)
+            throws IOException, ImproperArguments {
+        ByteBuffer buffer = newReadBuffer();
+        long available = bytesLeft(channel) - WORKLOAD_HEADER_SIZE;
+        fill(channel, buffer, WORKLOAD_HEADER_SIZE);
+        long count = readWorkloadHeader(buffer);
+        int checksum = buffer.getInt();
+        buffer.getInt();
+        if (count > Integer.MAX_VALUE) {
+            throw new ImproperArguments("Work load of " + count + " processes is too " +
+                    "large to hold in memory; stream it instead.");
+        }
+        if (count > available / WORKLOAD_RECORD_SIZE) {
+            throw new ImproperArguments("Work load is shorter than its header says!");
+        }
+        int capacity = initialCapacity(channel, count, WORKLOAD_RECORD_SIZE);
+        int[] arrivalTimes = new int[capacity];
+        int[] burstLengths = new int[capacity];
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < count; i++) {
+            if (i == arrivalTimes.length) {
+                capacity = grow(capacity, count);
+                arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+                burstLengths = Arrays.copyOf(burstLengths, capacity);
+            }
+            if (buffer.remaining() < WORKLOAD_RECORD_SIZE) {
+                fill(channel, buffer, WORKLOAD_RECORD_SIZE);
+            }
+            int start = buffer.position();
+            arrivalTimes[i] = buffer.getInt();
+            burstLengths[i] = buffer.getInt();
+            crc.update(buffer.array(), start, WORKLOAD_RECORD_SIZE);
+            checkProcess(i, arrivalTimes[i], burstLengths[i]);
+        }
+        checkChecksum(checksum, crc);
+        return new Workload(arrivalTimes, burstLengths);
+    }
+
+    /**
+     * Writes the results of a simulation to a channel.
+     * @param channel - the channel to write to
+     * @param result - the results to write
+     * @throws IOException - thrown if the channel can't be written
+     */
+    public static void writeResult(WritableByteChannel channel, SimulationResult result)
+            throws IOException {
+        Timeline timeline = result.getTimeline();
+        ByteBuffer buffer = newBuffer();
+        // The checksum goes in the header, so it is computed in a first pass
+        CRC32C crc = new CRC32C();
+        for (int pass = 0; pass < 2; pass++) {
+            if (pass == 1) {
+                buffer.putInt(RESULT_MAGIC).putInt(VERSION)
+                        .putInt(result.getType().ordinal()).putInt(0)
+                        .putLong(timeline.size()).putLong(result.size())
+                        .putInt((int) crc.getValue()).putInt(0);
+            }
+            for (int i = 0; i < timeline.size(); i++) {
+                if (buffer.remaining() < SEGMENT_RECORD_SIZE) {
+                    flushOrChecksum(pass, channel, buffer, crc);
+                }
+                buffer.putInt(timeline.getId(i)).putLong(timeline.getStart(i))
+                        .putLong(timeline.getLength(i));
+            }
+            for (int i = 0; i < result.size(); i++) {
+                if (buffer.remaining() < PROCESS_RECORD_SIZE) {
+                    flushOrChecksum(pass, channel, buffer, crc);
+                }
+                buffer.putLong(result.getWaitingTime(i))
+                        .putLong(result.getTurnaroundTime(i))
+                        .putLong(result.getResponseTime(i));
+            }
+            flushOrChecksum(pass, channel, buffer, crc);
+        }
+    }
+
+    /**
+     * Reads the results of a simulation from a channel.
+     * @param channel - the channel to read from
+     * @return SimulationResult - the results that were read
+     * @throws IOException - thrown if the channel can't be read or ends too soon
+     * @throws ImproperArguments - thrown if the data is not a valid result
+     */
+    public static SimulationResult readResult(ReadableByteChannel channel)
+            throws IOException, ImproperArguments {
+        ByteBuffer buffer = newReadBuffer();
+        long available = bytesLeft(channel) - RESULT_HEADER_SIZE;
+        fill(channel, buffer, RESULT_HEADER_SIZE);
+        checkMagicAndVersion(buffer.getInt(), buffer.getInt(), RESULT_MAGIC);
+        int typeOrdinal = buffer.getInt();
+        buffer.getInt();
+        long segments = buffer.getLong();
+        long processes = buffer.getLong();
+        int checksum = buffer.getInt();
+        buffer.getInt();
+        if (typeOrdinal < 0 || typeOrdinal >= SchedulingType.values().length) {
+            throw new ImproperArguments("Unknown scheduling type " + typeOrdinal + "!");
+        }
+        if (segments < 0 || processes < 0 || processes > Integer.MAX_VALUE) {
+            throw new ImproperArguments("Bad segment or process count in result!");
+        }
+        // Check the counts fit in the channel before allocating anything for them
+        if (segments > available / SEGMENT_RECORD_SIZE || processes
+                > (available - segments * SEGMENT_RECORD_SIZE) / PROCESS_RECORD_SIZE) {
+            throw new ImproperArguments("Result is shorter than its header says!");
+        }
+
+        CRC32C crc = new CRC32C();
+        Timeline timeline = new Timeline();
+        for (long i = 0; i < segments; i++) {
+            if (buffer.remaining() < SEGMENT_RECORD_SIZE) {
+                fill(channel, buffer, SEGMENT_RECORD_SIZE);
+            }
+            crc.update(buffer.array(), buffer.position(), SEGMENT_RECORD_SIZE);
+            timeline.append(buffer.getInt(), buffer.getLong(), buffer.getLong());
+        }
+        int capacity = initialCapacity(channel, processes, PROCESS_RECORD_SIZE);
+        long[] waitingTimes = new long[capacity];
+        long[] turnaroundTimes = new long[capacity];
+        long[] responseTimes = new long[capacity];
+        for (int i = 0; i < processes; i++) {
+            if (i == waitingTimes.length) {
+                capacity = grow(capacity, processes);
+                waitingTimes = Arrays.copyOf(waitingTimes, capacity);
+                turnaroundTimes = Arrays.copyOf(turnaroundTimes, capacity);
+                responseTimes = Arrays.copyOf(responseTimes, capacity);
+            }
+            if (buffer.remaining() < PROCESS_RECORD_SIZE) {
+                fill(channel, buffer, PROCESS_RECORD_SIZE);
+            }
+            crc.update(buffer.array(), buffer.position(), PROCESS_RECORD_SIZE);
+            waitingTimes[i] = buffer.getLong();
+            turnaroundTimes[i] = buffer.getLong();
+            responseTimes[i] = buffer.getLong();
+        }
+        checkChecksum(checksum, crc);
+        return new SimulationResult(SchedulingType.values()[typeOrdinal], timeline,
+                waitingTimes, turnaroundTimes, responseTimes);
+    }
+
+    // A little-endian heap buffer for staging records on their way to a channel.
+    static ByteBuffer newBuffer() {
+        return ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // A little-endian heap buffer for staging records read from a channel. It starts
+    // out holding no unread bytes.
+    static ByteBuffer newReadBuffer() {
+        ByteBuffer buffer = newBuffer();
+        buffer.limit(0);
+        return buffer;
+    }
+
+    // Puts a work load header in the buffer.
+    static void writeWorkloadHeader(ByteBuffer buffer, long count, int checksum) {
+        buffer.putInt(WORKLOAD_MAGIC).putInt(VERSION).putLong(count).putInt(checksum)
+                .putInt(0);
+    }
+
+    // Reads the magic number, version and process count of a work load header from
+    // the buffer, and returns the count. The checksum and padding are left unread.
+    static long readWorkloadHeader(ByteBuffer buffer) throws ImproperArguments {
+        checkMagicAndVersion(buffer.getInt(), buffer.getInt(), WORKLOAD_MAGIC);
+        long count = buffer.getLong();
+        if (count < 0) {
+            throw new ImproperArguments("Bad process count " + count + " in work load!");
+        }
+        return count;
+    }
+
+    // Checks the checksum stored in a header against the one computed from the data.
+    static void checkChecksum(int checksum, CRC32C crc) throws ImproperArguments {
+        if ((int) crc.getValue() != checksum) {
+            throw new ImproperArguments("Checksum does not match! The data is corrupt.");
+        }
+    }
+
+    // Checks one process of a work load.
+    static void checkProcess(long index, int arrivalTime, int burstLength)
+            throws ImproperArguments {
+        if (arrivalTime < 0 || burstLength <= 0) {
+            throw new ImproperArguments("Process " + index + " has a negative arrival " +
+                    "time or a burst length that is not positive!");
+        }
+    }
+
+    // Checks the magic number and version at the start of a header.
+    static void checkMagicAndVersion(int magic, int version, int expected)
+            throws ImproperArguments {
+        if (magic != expected) {
+            throw new ImproperArguments("Not a " + (expected == WORKLOAD_MAGIC
+                    ? "work load" : "result") + " file: bad magic number!");
+        }
+        if (version != VERSION) {
+            throw new ImproperArguments("Unsupported format version " + version + "!");
+        }
+    }
+
+    // Reads from the channel until the buffer holds at least the given number of
+    // unread bytes, keeping any bytes that were not read yet.
+    static void fill(ReadableByteChannel channel, ByteBuffer buffer, int needed)
+            throws IOException {
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Channel ended in the middle of a record");
+            }
+        }
+        buffer.flip();
+    }
+
+    // The number of bytes left to read from a channel, if it is a file or another
+    // channel whose size is known, or Long.MAX_VALUE if it is not.
+    static long bytesLeft(ReadableByteChannel channel) throws IOException {
+        if (channel instanceof SeekableByteChannel seekable) {
+            return Math.max(0, seekable.size() - seekable.position());
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // The number of records to make room for before any of them are read. If the size
+    // of the channel is unknown, the count in the header can't be checked against it,
+    // so only a buffer's worth is allocated up front, and the arrays grow as records
+    // actually arrive. A header that claims far more records than a short stream
+    // holds then fails with an EOFException instead of a huge allocation.
+    static int initialCapacity(ReadableByteChannel channel, long count, int recordSize) {
+        if (channel instanceof SeekableByteChannel) {
+            return (int) count;
+        }
+        return (int) Math.min(count, BUFFER_SIZE / recordSize);
+    }
+
+    // The capacity to grow arrays of records to when they are full: double, but no
+    // more than the count in the header.
+    static int grow(int capacity, long count) {
+        return (int) Math.min(count, Math.max(1, 2L * capacity));
+    }
+
+    // Writes everything in the buffer to the channel and clears it.
+    static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // On the first pass, adds the buffer's contents to the checksum; on the second,
+    // writes them to the channel.
+    private static void flushOrChecksum(int pass, WritableByteChannel channel,
+                                        ByteBuffer buffer, CRC32C crc)
+            throws IOException {
+        if (pass == 0) {
+            buffer.flip();
+            crc.update(buffer);
+            buffer.clear();
+        } else {
+            drain(channel, buffer);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.CRC32C;
+
+/**
+ * An ArrivalSource that reads a work load in the binary form described by the
+ * BinaryFormat class from a channel, one record at a time, so a binary work load can be
+ * streamed into a StreamingScheduler without ever being held in memory. The checksum
+ * is checked once the last record has been read. Records must be sorted by arrival
+ * time.
+ *
+ * @author Brett Bernardi
+ */
+public class BinaryWorkloadReader implements ArrivalSource, AutoCloseable {
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CRC32C crc;
+    // number of processes in the work load, and number read so far
+    private final long count;
+    private long read;
+    // the checksum stored in the header
+    private final int checksum;
+    // the current process
+    private int arrivalTime;
+    private int burstLength;
+
+    /**
+     * Constructor that reads the header of the work load from the channel.
+     * @param channel - the channel to read from
+     * @throws IOException - thrown if the channel can't be read or ends too soon
+     * @throws ImproperArguments - thrown if the header is not valid
+     */
+    public BinaryWorkloadReader(ReadableByteChannel channel)
+            throws IOException, ImproperArguments {
+        this.channel = channel;
+        this.buffer = BinaryFormat.newReadBuffer();
+        this.crc = new CRC32C();
+        BinaryFormat.fill(channel, this.buffer, BinaryFormat.WORKLOAD_HEADER_SIZE);
+        this.count = BinaryFormat.readWorkloadHeader(this.buffer);
+        this.checksum = this.buffer.getInt();
+        this.buffer.getInt();
+        this.read = 0;
+    }
+
+    @Override
+    public boolean advance() throws ImproperArguments {
+        if (this.read == this.count) {
+            return false;
+        }
+        if (this.buffer.remaining() < BinaryFormat.WORKLOAD_RECORD_SIZE) {
+            try {
+                BinaryFormat.fill(this.channel, this.buffer,
+                        BinaryFormat.WORKLOAD_RECORD_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        this.crc.update(this.buffer.array(), this.buffer.position(),
+                BinaryFormat.WORKLOAD_RECORD_SIZE);
+        int arrival = this.buffer.getInt();
+        int burst = this.buffer.getInt();
+        BinaryFormat.checkProcess(this.read, arrival, burst);
+        if (this.read > 0 && arrival < this.arrivalTime) {
+            throw new ImproperArguments("Work load must be sorted by arrival time! " +
+                    "Process " + this.read + " arrives before process "
+                    + (this.read - 1) + ".");
+        }
+        this.arrivalTime = arrival;
+        this.burstLength = burst;
+        this.read++;
+        if (this.read == this.count) {
+            BinaryFormat.checkChecksum(this.checksum, this.crc);
+        }
+        return true;
+    }
+
+    @Override
+    public int getArrivalTime() {
+        return this.arrivalTime;
+    }
+
+    @Override
+    public int getBurstLength() {
+        return this.burstLength;
+    }
+
+    /**
+     * Getter for the number of processes in the work load
+     * @return long - the number of processes
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Closes the channel.
+     * @throws IOException - thrown if the channel can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,76 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.CRC32C;
+
+/**
+ * A class that writes a work load in the binary form described by the BinaryFormat
+ * class one process at a time, for work loads that are generated or read on the fly
+ * and never held in memory. The count and checksum in the header are not known until
+ * the last process has been written, so the channel must be seekable: a placeholder
+ * header is written first and filled in by close().
+ *
+ * @author Brett Bernardi
+ */
+public class BinaryWorkloadWriter implements AutoCloseable {
+    private final SeekableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CRC32C crc;
+    // the position of the header in the channel
+    private final long headerPosition;
+    // number of processes written so far
+    private long count;
+
+    /**
+     * Constructor that writes a placeholder header at the channel's current position.
+     * @param channel - the channel to write to
+     * @throws IOException - thrown if the channel can't be written
+     */
+    public BinaryWorkloadWriter(SeekableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = BinaryFormat.newBuffer();
+        this.crc = new CRC32C();
+        this.headerPosition = channel.position();
+        this.count = 0;
+        BinaryFormat.writeWorkloadHeader(this.buffer, 0, 0);
+        BinaryFormat.drain(channel, this.buffer);
+    }
+
+    /**
+     * Writes one process.
+     * @param arrivalTime - The time the process gets added to the ready queue
+     * @param burstLength - The length of the process's sole cpu burst
+     * @throws IOException - thrown if the channel can't be written
+     */
+    public void write(int arrivalTime, int burstLength) throws IOException {
+        if (this.buffer.remaining() < BinaryFormat.WORKLOAD_RECORD_SIZE) {
+            flush();
+        }
+        this.buffer.putInt(arrivalTime).putInt(burstLength);
+        this.count++;
+    }
+
+    /**
+     * Writes any buffered processes, then goes back and fills in the header. Does not
+     * close the channel.
+     * @throws IOException - thrown if the channel can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        long end = this.channel.position();
+        this.channel.position(this.headerPosition);
+        BinaryFormat.writeWorkloadHeader(this.buffer, this.count,
+                (int) this.crc.getValue());
+        BinaryFormat.drain(this.channel, this.buffer);
+        this.channel.position(end);
+    }
+
+    // Adds the buffered records to the checksum and writes them to the channel.
+    private void flush() throws IOException {
+        this.crc.update(this.buffer.array(), 0, this.buffer.position());
+        BinaryFormat.drain(this.channel, this.buffer);
+    }
+}
@@ -0,0 +1,42 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.SplittableRandom;
+
+/**
+ * Enum that lists the distributions a WorkloadGenerator can draw CPU burst lengths
+ * from. Every distribution is parameterized by its mean, and every sample is rounded to
+ * a whole number of units of time no smaller than one.
+ *
+ * @author Brett Bernardi
+ */
+public enum BurstDistribution {
+    // Every burst has exactly the mean length
+    CONSTANT,
+    // Bursts are uniformly distributed between 1 and twice the mean
+    UNIFORM,
+    // Bursts are exponentially distributed: many short bursts and a few long ones
+    EXPONENTIAL,
+    // Bursts are Pareto distributed with shape 1.5: heavy-tailed, so a handful of very
+    // long bursts make up much of the total execution time
+    PARETO;
+
+    // the shape of the Pareto distribution; the smaller, the heavier the tail
+    private static final double PARETO_SHAPE = 1.5;
+
+    /**
+     * Draws one burst length from this distribution.
+     * @param random - the source of randomness
+     * @param mean - the mean burst length
+     * @return int - a burst length of at least one
+     */
+    public int sample(SplittableRandom random, double mean) {
+        double burst = switch (this) {
+            case CONSTANT -> mean;
+            case UNIFORM -> 1 + random.nextDouble() * (2 * mean - 1);
+            case EXPONENTIAL -> -mean * Math.log(1 - random.nextDouble());
+            case PARETO -> mean * (PARETO_SHAPE - 1) / PARETO_SHAPE
+                    / Math.pow(1 - random.nextDouble(), 1 / PARETO_SHAPE);
+        };
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(burst)));
+    }
+}
@@ -0,0 +1,113 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * A scheduler that simulates a work load stored in a ProcessTable, for work loads far
+ * too large to hold as Process objects. It supports the same three scheduling
+ * algorithms as the Scheduler class and uses the same event-driven approach as its
+ * event-driven engine: the clock jumps from one arrival, completion or preemption
+ * point to the next. The ready queue is an IndexHeap of process indices keyed directly
+ * on the table's arrays, so a simulation allocates nothing beyond a couple of int
+ * arrays the size of the work load.
+ *
+ * Because each process has a single CPU burst and spends its whole life either on the
+ * ready queue or on the CPU, its waiting time is recorded when it terminates as its
+ * completion time minus its arrival time and burst length.
+ *
+ * This class does not build an execution schedule, only the waiting times.
+ *
+ * @author Brett Bernardi
+ */
+public class CompactScheduler {
+    // The work load being simulated
+    private final ProcessTable table;
+    // The type of algorithm to be used to schedule this work load
+    private final SchedulingType type;
+
+    /**
+     * Constructor for the CompactScheduler class.
+     * @param table - the work load to simulate
+     * @param type - type of scheduling(enum) specified
+     */
+    public CompactScheduler(ProcessTable table, SchedulingType type) {
+        if (type != SchedulingType.FCFS && type != SchedulingType.SJFNP
+                && type != SchedulingType.SRTF) {
+            throw new IllegalArgumentException(type + " is not supported by this " +
+                    "scheduler; use the Scheduler class");
+        }
+        this.table = table;
+        this.type = type;
+    }
+
+    /**
+     * Simulates the scheduling and execution of the work load, leaving the waiting
+     * time of every process in the table. The table is reset first, so the same table
+     * can be simulated more than once.
+     */
+    public void simulate() {
+        table.reset();
+        boolean preemptive = this.type == SchedulingType.SRTF;
+        int[] keys = this.type == SchedulingType.FCFS ? table.arrivalTimes()
+                : table.cpuTimesRemaining();
+        IndexHeap readyQueue = new IndexHeap(keys, table.arrivalTimes(), table.size());
+        int[] arrivalOrder = table.arrivalOrder();
+        int nextArrival = 0;
+        int processesLeft = table.size();
+        long time = 0;
+        // index of the process on the CPU, or -1 if the CPU is idle
+        int running = -1;
+
+        while (processesLeft > 0) {
+            // A preempted process goes back onto the ready queue before any new
+            // arrivals are added. Its key only changed while it was off the heap.
+            if (preemptive && running >= 0) {
+                table.setState(running, ProcessState.READY);
+                readyQueue.add(running);
+                running = -1;
+            }
+            while (nextArrival < arrivalOrder.length
+                    && table.getArrivalTime(arrivalOrder[nextArrival]) <= time) {
+                table.setState(arrivalOrder[nextArrival], ProcessState.READY);
+                readyQueue.add(arrivalOrder[nextArrival++]);
+            }
+            if (running < 0) {
+                // Nothing to run, so the CPU is idle until the next arrival
+                if (readyQueue.isEmpty()) {
+                    time = table.getArrivalTime(arrivalOrder[nextArrival]);
+                    continue;
+                }
+                running = readyQueue.poll();
+                table.setState(running, ProcessState.RUNNING);
+            }
+
+            // Execute until the next event: termination, or a possible preemption
+            int runFor = table.getCPUTime(running);
+            if (preemptive && nextArrival < arrivalOrder.length) {
+                runFor = (int) Math.min(runFor,
+                        table.getArrivalTime(arrivalOrder[nextArrival]) - time);
+            }
+            table.execute(running, runFor);
+            time += runFor;
+
+            if (table.getCPUTime(running) == 0) {
+                table.setState(running, ProcessState.TERMINATED);
+                table.setWaitingTime(running, time - table.getArrivalTime(running)
+                        - table.getBurstLength(running));
+                running = -1;
+                processesLeft--;
+            }
+        }
+    }
+
+    /**
+     * Calculates and returns the average waiting time of every process in the table.
+     *
+     * @return double - the Avg. Waiting Time.
+     */
+    public double getAvgWaitTime() {
+        double sum = 0;
+        for (int i = 0; i < table.size(); i++) {
+            sum += table.getWaitingTime(i);
+        }
+        return sum / table.size();
+    }
+}
@@ -1,18 +1,18 @@
 package edu.bloomu.huskies.bmb56279;
 
-import java.util.Comparator;
-
 /**
  * A class that implements the comparator interface to sort Process objects in a
  * priority queue (representing a ready queue) according to FCFS rules. This means the
- * process with the earliest arrival time in the priority queue will always be the
- * head of the list.
+ * process that entered the ready queue first will always be the head of the list. For
+ * a process that has not done any I/O, that is the time it arrived; one that comes
+ * back from I/O gets in line behind the processes that were already waiting. Processes
+ * that entered at the same time are ordered by arrival time, then by process ID.
  *
  * @author Brett Bernardi
  */
-class FCFSComparator implements Comparator<Process> {
+class FCFSComparator extends ProcessComparator {
     @Override
-    public int compare(Process p1, Process p2) {
-        return p1.getArrivalTime() - p2.getArrivalTime();
+    long primaryKey(Process p) {
+        return p.getReadyTime();
     }
 }
\ No newline at end of file
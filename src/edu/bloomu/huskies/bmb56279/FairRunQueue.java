@@ -0,0 +1,187 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.TreeSet;
+
+/**
+ * The run queue of the Completely Fair Scheduler, modeled on the one in Linux. Every
+ * process has a weight, from its nice level, and a virtual runtime: the CPU time it has
+ * had, divided by its weight. The run queue is a red-black tree (a TreeSet) ordered by
+ * virtual runtime, and the scheduler always runs the leftmost process, the one that
+ * has had the least of its fair share of the CPU, so over time every process gets CPU
+ * time in proportion to its weight. Adding a process and taking the leftmost one are
+ * O(log n), however deep the run queue is.
+ *
+ * The running process is not in the tree. It runs for a time slice, its share of the
+ * target latency by weight; with so many processes that the slices would be shorter
+ * than the minimum granularity, the latency is stretched instead. A process that
+ * becomes ready preempts the running one if its virtual runtime is behind by more than
+ * the minimum granularity.
+ *
+ * The queue also tracks min vruntime, which only ever grows and follows the smallest
+ * virtual runtime of the running and waiting processes. A new process starts at it, so
+ * it can't claim all the CPU time that passed before it arrived. A process back from
+ * I/O starts no further behind it than half the target latency, so it gets the CPU
+ * soon but can't monopolize it for the time it was blocked.
+ *
+ * Virtual runtimes are in units of 2^-16 units of CPU time of a process of nice level
+ * 0 (weight 1024), so even the heaviest process's runtime grows by hundreds of units
+ * per unit of time.
+ *
+ * @author Brett Bernardi
+ */
+class FairRunQueue {
+    // the weight of each nice level from -20 to 19; each level gets about 10% less
+    // CPU time than the one before it. The same table as Linux.
+    private static final int[] WEIGHTS = {
+            88761, 71755, 56483, 46273, 36291,
+            29154, 23254, 18705, 14949, 11916,
+            9548, 7620, 6100, 4904, 3906,
+            3121, 2501, 1991, 1586, 1277,
+            1024, 820, 655, 526, 423,
+            335, 272, 215, 172, 137,
+            110, 87, 70, 56, 45,
+            36, 29, 23, 18, 15
+    };
+    // the weight of nice level 0
+    private static final long NICE_0_WEIGHT = 1024;
+    // virtual runtimes are in units of 2^-VRUNTIME_SHIFT units of time at nice 0
+    private static final int VRUNTIME_SHIFT = 16;
+
+    private final TreeSet<Process> tree;
+    // the time every ready process should get to run once in, and the shortest slice
+    private final long targetLatency;
+    private final long minGranularity;
+    // the sum of the weights of the processes in the tree
+    private long totalWeight;
+    // the smallest virtual runtime, which never decreases
+    private long minVruntime;
+
+    /**
+     * Constructor for an empty run queue.
+     * @param targetLatency - the time every ready process should get to run once in
+     * @param minGranularity - the shortest time slice
+     */
+    FairRunQueue(long targetLatency, long minGranularity) {
+        this.tree = new TreeSet<>(new VruntimeComparator());
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+        this.totalWeight = 0;
+        this.minVruntime = 0;
+    }
+
+    /**
+     * Returns the weight of a process, from its nice level.
+     * @param p - the process
+     * @return int - the weight of the process
+     */
+    static int weightOf(Process p) {
+        return WEIGHTS[p.getPriority()];
+    }
+
+    /**
+     * Adds a process to the run queue. A process that has never run starts at min
+     * vruntime, and one that has slept starts no more than half the target latency
+     * behind it.
+     * @param p - the process to add
+     */
+    void add(Process p) {
+        long floor = this.minVruntime;
+        if (p.getFirstRunTime() >= 0) {
+            floor -= (this.targetLatency / 2) << VRUNTIME_SHIFT;
+        }
+        if (p.getVruntime() < floor) {
+            p.setVruntime(floor);
+        }
+        this.tree.add(p);
+        this.totalWeight += weightOf(p);
+    }
+
+    /**
+     * Removes and returns the process with the smallest virtual runtime.
+     * @return Process - the leftmost process, or null if the queue is empty
+     */
+    Process poll() {
+        Process p = this.tree.pollFirst();
+        if (p != null) {
+            this.totalWeight -= weightOf(p);
+            // it was the smallest, so it is the new minimum
+            this.minVruntime = Math.max(this.minVruntime, p.getVruntime());
+        }
+        return p;
+    }
+
+    /**
+     * Returns the time slice of a process that has just been taken off the run queue:
+     * its share, by weight, of the target latency, or of the minimum granularity times
+     * the number of ready processes if that is longer.
+     * @param running - the process about to run
+     * @return long - the time slice, at least the minimum granularity
+     */
+    long slice(Process running) {
+        long weight = weightOf(running);
+        long count = this.tree.size() + 1L;
+        long period = Math.max(this.targetLatency, count * this.minGranularity);
+        long slice = period * weight / (this.totalWeight + weight);
+        return Math.max(this.minGranularity, slice);
+    }
+
+    /**
+     * Charges the running process for CPU time it has had, advancing its virtual
+     * runtime, and min vruntime with it.
+     * @param running - the running process
+     * @param time - the CPU time it had
+     */
+    void charge(Process running, long time) {
+        running.setVruntime(running.getVruntime() + toVirtual(time, weightOf(running)));
+        long smallest = running.getVruntime();
+        if (!this.tree.isEmpty()) {
+            smallest = Math.min(smallest, this.tree.first().getVruntime());
+        }
+        this.minVruntime = Math.max(this.minVruntime, smallest);
+    }
+
+    /**
+     * Returns true if the leftmost waiting process should preempt the running one:
+     * if the running process is ahead of it by more than the minimum granularity,
+     * in the leftmost process's virtual time.
+     * @param running - the running process
+     * @return boolean - true if the running process should be preempted
+     */
+    boolean shouldPreempt(Process running) {
+        if (this.tree.isEmpty()) {
+            return false;
+        }
+        Process leftmost = this.tree.first();
+        return running.getVruntime() - leftmost.getVruntime()
+                > toVirtual(this.minGranularity, weightOf(leftmost));
+    }
+
+    /**
+     * Getter for min vruntime
+     * @return long - the smallest virtual runtime, which never decreases
+     */
+    long getMinVruntime() {
+        return this.minVruntime;
+    }
+
+    /**
+     * Returns true if the queue holds no processes.
+     * @return boolean - true if empty
+     */
+    boolean isEmpty() {
+        return this.tree.isEmpty();
+    }
+
+    /**
+     * Returns the number of processes in the queue.
+     * @return int - the size of the queue
+     */
+    int size() {
+        return this.tree.size();
+    }
+
+    // Converts CPU time to virtual runtime for a process of the given weight.
+    private static long toVirtual(long time, long weight) {
+        return (time << VRUNTIME_SHIFT) * NICE_0_WEIGHT / weight;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * A binary min-heap of process indices, stored in a primitive int array and ordered by
+ * an int key array owned by a ProcessTable (arrival times for FCFS, remaining CPU time
+ * for SJF). It plays the part of the PriorityQueue used by the Scheduler class, but
+ * without any Process objects or Comparator calls: comparing two entries is two array
+ * loads. Indices with equal keys are ordered by arrival time, and then by the smaller
+ * index, which is the process ID: the same tie breakers as ProcessComparator, so the
+ * two schedulers order ready processes the same way.
+ *
+ * The key of an index must not change while the index is in the heap.
+ *
+ * @author Brett Bernardi
+ */
+class IndexHeap {
+    // the process indices, laid out as a binary heap
+    private final int[] heap;
+    // the key and the arrival time of every process, indexed by process
+    private final int[] keys;
+    private final int[] arrivalTimes;
+    // number of indices in the heap
+    private int size;
+
+    /**
+     * Constructor for an empty heap.
+     * @param keys - the key of every process, indexed by process
+     * @param arrivalTimes - the arrival time of every process, indexed by process
+     * @param capacity - the maximum number of indices the heap will hold
+     */
+    IndexHeap(int[] keys, int[] arrivalTimes, int capacity) {
+        this.keys = keys;
+        this.arrivalTimes = arrivalTimes;
+        this.heap = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Adds a process index to the heap.
+     * @param i - the index of the process
+     */
+    void add(int i) {
+        int child = this.size++;
+        // sift up: move parents down until the new index's spot is found
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (!less(i, this.heap[parent])) {
+                break;
+            }
+            this.heap[child] = this.heap[parent];
+            child = parent;
+        }
+        this.heap[child] = i;
+    }
+
+    /**
+     * Removes and returns the index with the smallest key.
+     * @return int - the index of the head process
+     */
+    int poll() {
+        int head = this.heap[0];
+        int last = this.heap[--this.size];
+        int parent = 0;
+        int half = this.size >>> 1;
+        // sift down: move the smaller child up until the last index's spot is found
+        while (parent < half) {
+            int child = 2 * parent + 1;
+            if (child + 1 < this.size && less(this.heap[child + 1], this.heap[child])) {
+                child++;
+            }
+            if (!less(this.heap[child], last)) {
+                break;
+            }
+            this.heap[parent] = this.heap[child];
+            parent = child;
+        }
+        this.heap[parent] = last;
+        return head;
+    }
+
+    /**
+     * Returns the index with the smallest key without removing it.
+     * @return int - the index of the head process
+     */
+    int peek() {
+        return this.heap[0];
+    }
+
+    /**
+     * Returns true if the heap holds no indices.
+     * @return boolean - true if empty
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of indices in the heap.
+     * @return int - the size of the heap
+     */
+    int size() {
+        return this.size;
+    }
+
+    // true if process a comes before process b
+    private boolean less(int a, int b) {
+        int ka = this.keys[a];
+        int kb = this.keys[b];
+        if (ka != kb) {
+            return ka < kb;
+        }
+        int aa = this.arrivalTimes[a];
+        int ab = this.arrivalTimes[b];
+        return aa < ab || (aa == ab && a < b);
+    }
+}
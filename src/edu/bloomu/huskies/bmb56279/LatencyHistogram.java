@@ -0,0 +1,202 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * A histogram of non-negative times (such as waiting, turnaround or response times)
+ * that answers percentile queries without keeping the values themselves. It works like
+ * an HDR histogram: values below 128 each get their own bucket, and every power of two
+ * above that is split into 64 buckets of equal width, so a bucket is never wider than
+ * 1/64 of the values in it. A percentile is therefore reported to within about 1.6% of
+ * the exact value, while the count, minimum, maximum and mean are exact. The mean is
+ * kept as the sum of every value in a long, so it stays exact as long as that sum fits
+ * in one.
+ *
+ * Recording a value is O(1) and the memory used depends only on the largest value
+ * recorded, never on how many values were recorded: at most a few thousand buckets
+ * for any long.
+ *
+ * @author Brett Bernardi
+ */
+public class LatencyHistogram {
+    // values below this are counted exactly
+    private static final int LINEAR_BUCKETS = 128;
+    // buckets per power of two above the linear range, and its log
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BITS = 6;
+
+    // number of values in each bucket; grows as larger values are recorded
+    private long[] counts;
+    private long count;
+    private long min;
+    private long max;
+    // exact sum of every value, for the mean
+    private long sum;
+
+    /**
+     * Constructor for an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new long[LINEAR_BUCKETS];
+        this.count = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+        this.sum = 0;
+    }
+
+    /**
+     * Constructor for a histogram restored from a checkpoint.
+     * @param counts - the number of values in each bucket
+     * @param count - the number of values recorded
+     * @param min - the smallest value recorded
+     * @param max - the largest value recorded
+     * @param sum - the sum of every value recorded
+     */
+    LatencyHistogram(long[] counts, long count, long min, long max, long sum) {
+        this.counts = counts;
+        this.count = count;
+        this.min = count == 0 ? Long.MAX_VALUE : min;
+        this.max = max;
+        this.sum = sum;
+    }
+
+    /**
+     * Records a value.
+     * @param value - the value to record, which can't be negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Can't record a negative value: " + value);
+        }
+        int index = bucketOf(value);
+        if (index >= this.counts.length) {
+            // grow to the end of the value's power of two
+            long[] bigger = new long[(index | (SUB_BUCKETS - 1)) + 1];
+            System.arraycopy(this.counts, 0, bigger, 0, this.counts.length);
+            this.counts = bigger;
+        }
+        this.counts[index]++;
+        this.count++;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+        this.sum += value;
+    }
+
+    /**
+     * Adds every value recorded in another histogram to this one.
+     * @param other - the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length > this.counts.length) {
+            long[] bigger = new long[other.counts.length];
+            System.arraycopy(this.counts, 0, bigger, 0, this.counts.length);
+            this.counts = bigger;
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.count += other.count;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+        this.sum += other.sum;
+    }
+
+    /**
+     * Returns the value at a percentile, by nearest rank: the smallest recorded value
+     * that at least that percent of all values are less than or equal to. The value is
+     * the highest one its bucket can hold, but never more than the maximum.
+     * @param percentile - the percentile, between 0 and 100
+     * @return long - the value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("A percentile is between 0 and 100");
+        }
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Getter for the number of values recorded
+     * @return long - the count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Getter for the smallest value recorded
+     * @return long - the minimum, or 0 if nothing was recorded
+     */
+    public long getMin() {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * Getter for the largest value recorded
+     * @return long - the maximum, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Returns the exact mean of every value recorded.
+     * @return double - the mean, or NaN if nothing was recorded
+     */
+    public double getMean() {
+        return (double) this.sum / this.count;
+    }
+
+    // The bucket counts themselves, not a copy, for writing a checkpoint.
+    long[] getCounts() {
+        return this.counts;
+    }
+
+    // The exact sum of every value recorded, for writing a checkpoint.
+    long getSum() {
+        return this.sum;
+    }
+
+    /**
+     * Overrides toString().
+     * @return String - the count, mean, and the usual percentiles
+     */
+    @Override
+    public String toString() {
+        return String.format("count %d avg %.2f p50 %d p90 %d p99 %d p99.9 %d max %d",
+                this.count, getMean(), getValueAtPercentile(50),
+                getValueAtPercentile(90), getValueAtPercentile(99),
+                getValueAtPercentile(99.9), this.max);
+    }
+
+    // The bucket a value goes in. Above the linear range, the position of the value's
+    // highest bit picks its power of two, and the next SUB_BITS bits pick the bucket
+    // within it.
+    private static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // The highest value that goes in a bucket.
+    private static long highestValueIn(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
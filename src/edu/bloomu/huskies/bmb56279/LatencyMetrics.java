@@ -0,0 +1,31 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * An interface for the schedulers that record the waiting, turnaround and response
+ * time of every process in LatencyHistograms as it terminates, so their percentiles
+ * can be reported the same way whichever scheduler ran the simulation.
+ *
+ * @author Brett Bernardi
+ */
+public interface LatencyMetrics {
+    /**
+     * Getter for the histogram of the waiting times of every process that has
+     * terminated, for percentiles such as the p99 waiting time.
+     * @return LatencyHistogram - the waiting times
+     */
+    LatencyHistogram getWaitingTimeHistogram();
+
+    /**
+     * Getter for the histogram of the turnaround times of every process that has
+     * terminated.
+     * @return LatencyHistogram - the turnaround times
+     */
+    LatencyHistogram getTurnaroundTimeHistogram();
+
+    /**
+     * Getter for the histogram of the response times of every process that has
+     * terminated.
+     * @return LatencyHistogram - the response times
+     */
+    LatencyHistogram getResponseTimeHistogram();
+}
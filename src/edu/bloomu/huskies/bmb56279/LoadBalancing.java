@@ -0,0 +1,18 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * Enum that lists the ways the MultiCoreScheduler class can spread processes across
+ * the cores of a multi-core CPU.
+ *
+ * @author Brett Bernardi
+ */
+public enum LoadBalancing {
+    // One ready queue shared by every core. Any idle core takes the head process.
+    GLOBAL_QUEUE,
+    // One ready queue per core. Arrivals go to the least loaded core, and a core whose
+    // own queue is empty steals the head process of the longest queue.
+    WORK_STEALING,
+    // One ready queue per core. Arrivals go to the least loaded core and stay there
+    // until they terminate; no process ever moves to another core.
+    AFFINITY
+}
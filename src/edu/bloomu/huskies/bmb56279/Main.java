@@ -1,11 +1,14 @@
 package edu.bloomu.huskies.bmb56279;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * The class containing the main method that retrieves user input, creates the
- * appropriate Scheduler objects, calls the simulate method to schedule and execute
- * processes, and then displays the results. User can exit outof loop (and program) by
+ * The class containing the main method that retrieves user input, parses it into a
+ * Workload, simulates it under every scheduling algorithm at once with a BatchRunner,
+ * and then displays the results. User can exit outof loop (and program) by
  * typing in the string "q" or "Q".
  *
  * @author Brett Bernardi
@@ -14,6 +17,8 @@ public class Main {
 
     public static void main(String[] args) {
         Scanner input = new Scanner(System.in);
+        BatchRunner runner = new BatchRunner(ForkJoinPool.commonPool(),
+                SimulationEngine.TICK);
 
 
         while (true) {
@@ -23,45 +28,21 @@ public class Main {
                 break;
             }
             String[] userInput = userLine.split(" ");
-            Scheduler fcfs;
-            Scheduler sjfnp;
-            Scheduler srtf;
-            // The constructor for the Scheduler class will throw an ImproperArguments
-            // Exception if user input is not in the correct format.
+            // Workload.parse() will throw an ImproperArguments Exception if user input
+            // is not in the correct format.
             try {
-                fcfs = new Scheduler(userInput, SchedulingType.FCFS);
-                sjfnp = new Scheduler(userInput, SchedulingType.SJFNP);
-                srtf = new Scheduler(userInput, SchedulingType.SRTF);
+                Workload workLoad = Workload.parse(userInput);
 
                 // At this point, arguments are valid. No Exception caught.
                 System.out.println();
 
-                // Simulate and retrieve results for SRTF
-                srtf.simulate();
-                System.out.print("SRTF: ");
-                convertAndPrintSchedule(srtf.getSchedule());
-                System.out.println();
-                System.out.print("Average Waiting Time: ");
-                System.out.printf("%.2f\n", srtf.getAvgWaitTime());
-                System.out.println();
-
-                // Simulate and retrieve results for SJF
-                sjfnp.simulate();
-                System.out.print("SJF: ");
-                convertAndPrintSchedule(sjfnp.getSchedule());
-                System.out.println();
-                System.out.print("Average Waiting Time: ");
-                System.out.printf("%.2f\n", sjfnp.getAvgWaitTime());
-                System.out.println();
-
-                // Simulate and retrieve results for FCFS
-                fcfs.simulate();
-                System.out.print("FCFS: ");
-                convertAndPrintSchedule(fcfs.getSchedule());
-                System.out.println();
-                System.out.print("Average Waiting Time: ");
-                System.out.printf("%.2f\n", fcfs.getAvgWaitTime());
-                System.out.println();
+                // Simulate all three algorithms at once, then retrieve the results
+                Map<SchedulingType, Scheduler> results = runner.simulate(workLoad,
+                        List.of(SchedulingType.SRTF, SchedulingType.SJFNP,
+                                SchedulingType.FCFS));
+                printResults("SRTF", results.get(SchedulingType.SRTF));
+                printResults("SJF", results.get(SchedulingType.SJFNP));
+                printResults("FCFS", results.get(SchedulingType.FCFS));
 
 
             } catch (ImproperArguments e) {
@@ -77,34 +58,30 @@ public class Main {
     }
 
     /**
-     * Private static helper method to print the Process schedule (char[] array) into
-     * a readable form.
+     * Private static helper method to print the schedule and average waiting time of a
+     * Scheduler whose simulation has finished.
      *
-     * Pre-Conditions: char[] array in parameter must have a size greater than 1. It's
-     * unlikely to ever encounter that in this simulation. That would require a
-     * workload of one process consisting of a CPU burst of length one unit of time.
-     * Unlikely.
+     * @param name - the name of the scheduling algorithm
+     * @param scheduler - the simulated Scheduler
+     */
+    private static void printResults(String name, Scheduler scheduler) {
+        System.out.print(name + ": ");
+        printTimeline(scheduler.getTimeline());
+        System.out.println();
+        System.out.print("Average Waiting Time: ");
+        System.out.printf("%.2f\n", scheduler.getAvgWaitTime());
+        System.out.println();
+    }
+
+    /**
+     * Private static helper method to print the Process schedule (a run-length encoded
+     * Timeline) into a readable form: each segment is printed as the name of the
+     * process followed by the number of units of time it executed.
      *
-     * @param schedule - the Schedule of processes as a char[] array
+     * @param timeline - the Schedule of processes as a Timeline
      */
-    private static void convertAndPrintSchedule(char[] schedule) {
-        int counter = 1;
-        for (int i = 0; i < schedule.length; i++) {
-            if (i == schedule.length - 1) {
-                if (schedule[i] == schedule[i - 1]) {
-                    System.out.printf("%c%d ", schedule[i], counter);
-                } else {
-                    System.out.printf("%c%d ", schedule[i], 1);
-                }
-            } else {
-                if (schedule[i] == schedule[i + 1]) {
-                    counter++;
-                } else {
-                    System.out.printf("%c%d ", schedule[i], counter);
-                    counter = 1;
-                }
-            }
-        }
+    private static void printTimeline(Timeline timeline) {
+        System.out.print(timeline.format(ProcessNames.DEFAULT));
     }
 }
 
@@ -0,0 +1,137 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.Arrays;
+
+/**
+ * An immutable summary of one metric (waiting, turnaround or response time) over many
+ * processes: its average, median (p50), 90th, 99th and 99.9th percentiles, and its
+ * maximum. The tail percentiles are what averages hide.
+ *
+ * @author Brett Bernardi
+ */
+public final class MetricSummary {
+    private final double average;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Constructor for the MetricSummary class.
+     * @param average - the average value
+     * @param p50 - the median value
+     * @param p90 - the 90th percentile value
+     * @param p99 - the 99th percentile value
+     * @param p999 - the 99.9th percentile value
+     * @param max - the largest value
+     */
+    public MetricSummary(double average, long p50, long p90, long p99, long p999,
+                         long max) {
+        this.average = average;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Summarizes an array of values exactly. The array is sorted in place.
+     * @param values - the value of the metric for every process
+     * @return MetricSummary - the summary of the values
+     */
+    public static MetricSummary of(long[] values) {
+        if (values.length == 0) {
+            return new MetricSummary(0, 0, 0, 0, 0, 0);
+        }
+        Arrays.sort(values);
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return new MetricSummary(sum / values.length, percentile(values, 50),
+                percentile(values, 90), percentile(values, 99),
+                percentile(values, 99.9), values[values.length - 1]);
+    }
+
+    /**
+     * Summarizes the values recorded in a histogram. The percentiles are as precise as
+     * the histogram's buckets; the average and maximum are exact.
+     * @param histogram - the value of the metric for every process
+     * @return MetricSummary - the summary of the values
+     */
+    public static MetricSummary of(LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return new MetricSummary(0, 0, 0, 0, 0, 0);
+        }
+        return new MetricSummary(histogram.getMean(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMax());
+    }
+
+    // nearest-rank percentile of a sorted array
+    private static long percentile(long[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Getter for the average value
+     * @return double - the average
+     */
+    public double getAverage() {
+        return this.average;
+    }
+
+    /**
+     * Getter for the median value
+     * @return long - the 50th percentile
+     */
+    public long getP50() {
+        return this.p50;
+    }
+
+    /**
+     * Getter for the 90th percentile value
+     * @return long - the 90th percentile
+     */
+    public long getP90() {
+        return this.p90;
+    }
+
+    /**
+     * Getter for the 99th percentile value
+     * @return long - the 99th percentile
+     */
+    public long getP99() {
+        return this.p99;
+    }
+
+    /**
+     * Getter for the 99.9th percentile value
+     * @return long - the 99.9th percentile
+     */
+    public long getP999() {
+        return this.p999;
+    }
+
+    /**
+     * Getter for the largest value
+     * @return long - the maximum
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Overrides toString().
+     * @return String - representation of the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("avg %.2f p50 %d p90 %d p99 %d p99.9 %d max %d",
+                this.average, this.p50, this.p90, this.p99, this.p999, this.max);
+    }
+}
@@ -0,0 +1,450 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * A scheduler that simulates a work load on a multi-core CPU instead of the single core
+ * CPU assumed by the Scheduler class. Each simulated core has its own MyLock, so up to
+ * one process per core can execute at once, and its own Timeline. How processes are
+ * spread across the cores is decided by a LoadBalancing policy: one ready queue shared
+ * by every core, one ready queue per core with idle cores stealing work from the
+ * longest queue, or one ready queue per core with every process pinned to the core it
+ * was first placed on.
+ *
+ * It supports the same three scheduling algorithms as the Scheduler class, applied by
+ * each core to the ready queue it takes processes from, and uses the same event-driven
+ * approach as the Scheduler's event-driven engine: the clock jumps from one arrival or
+ * completion to the next. With SRTF an arrival preempts the running process of the core
+ * it is placed on if it has less CPU time remaining, or, with a global queue, the
+ * running process with the most CPU time remaining on any core.
+ *
+ * Processes are assumed to have a single CPU burst; work loads with I/O bursts are
+ * only supported by the Scheduler class.
+ *
+ * Besides the waiting times, it reports how busy each core was and how many times a
+ * process was dispatched on a different core than the one it was last on (a
+ * migration). A fixed cost per context switch and an extra cost per migration can be
+ * set in the SchedulerConfig; the time lost to them is recorded on each core's
+ * Timeline and reported. As in the Scheduler, a switch is never interrupted: a process
+ * that becomes ready while a core is switching competes for that core once the switch
+ * is over.
+ *
+ * @author Brett Bernardi
+ */
+public class MultiCoreScheduler implements LatencyMetrics {
+    // the processes of the work load, in the order they were given
+    private final Process[] jobQueue;
+    // the processes sorted by arrival time, and the index of the next one to arrive
+    private final Process[] arrivalOrder;
+    private int nextArrival;
+    // The type of algorithm each core uses
+    private final SchedulingType type;
+    // How processes are spread across cores
+    private final LoadBalancing policy;
+    // context switch and migration costs
+    private final SchedulerConfig config;
+    // the simulated cores
+    private final Core[] cores;
+    // the ready queue shared by every core, used only with a global queue
+    private final PriorityQueue<Process> globalQueue;
+    // number of processes that are not yet in the terminated state
+    private int processesLeft;
+    // number of times a process was dispatched on a different core than it was last on
+    private long migrations;
+    // the time the last process terminated
+    private long makespan;
+    // the waiting, turnaround and response times of every process, recorded as it
+    // terminates
+    private final LatencyHistogram waitingTimes;
+    private final LatencyHistogram turnaroundTimes;
+    private final LatencyHistogram responseTimes;
+
+    /**
+     * Constructor for the MultiCoreScheduler class.
+     * @param workLoad - the work load to schedule
+     * @param type - type of scheduling(enum) each core uses
+     * @param numCores - the number of cores of the simulated CPU
+     * @param policy - how processes are spread across the cores
+     */
+    public MultiCoreScheduler(Workload workLoad, SchedulingType type, int numCores,
+                              LoadBalancing policy) {
+        this(workLoad, type, numCores, policy, new SchedulerConfig());
+    }
+
+    /**
+     * Constructor for the MultiCoreScheduler class that also takes the context switch
+     * and migration costs.
+     * @param workLoad - the work load to schedule
+     * @param type - type of scheduling(enum) each core uses
+     * @param numCores - the number of cores of the simulated CPU
+     * @param policy - how processes are spread across the cores
+     * @param config - holds the context switch and migration costs
+     */
+    public MultiCoreScheduler(Workload workLoad, SchedulingType type, int numCores,
+                              LoadBalancing policy, SchedulerConfig config) {
+        if (numCores < 1) {
+            throw new IllegalArgumentException("A CPU needs at least one core");
+        }
+        if (workLoad.hasIO()) {
+            throw new IllegalArgumentException("Work loads with I/O bursts are not " +
+                    "supported by this scheduler; use the Scheduler class");
+        }
+        if (type != SchedulingType.FCFS && type != SchedulingType.SJFNP
+                && type != SchedulingType.SRTF) {
+            throw new IllegalArgumentException(type + " is not supported by this " +
+                    "scheduler; use the Scheduler class");
+        }
+        this.type = type;
+        this.policy = policy;
+        this.config = config;
+        this.jobQueue = new Process[workLoad.size()];
+        for (int i = 0; i < workLoad.size(); i++) {
+            this.jobQueue[i] = new Process(i, workLoad.getArrivalTime(i),
+                    workLoad.getBurstLength(i));
+            this.jobQueue[i].setState(ProcessState.NEW);
+        }
+        this.arrivalOrder = this.jobQueue.clone();
+        Arrays.sort(this.arrivalOrder, new FCFSComparator());
+        this.processesLeft = this.jobQueue.length;
+        this.waitingTimes = new LatencyHistogram();
+        this.turnaroundTimes = new LatencyHistogram();
+        this.responseTimes = new LatencyHistogram();
+
+        this.cores = new Core[numCores];
+        for (int i = 0; i < numCores; i++) {
+            this.cores[i] = new Core(i);
+        }
+        this.globalQueue = policy == LoadBalancing.GLOBAL_QUEUE ? newReadyQueue() : null;
+    }
+
+    /**
+     * Simulates the scheduling and execution of the work load on every core.
+     */
+    public void simulate() {
+        boolean preemptive = this.type == SchedulingType.SRTF;
+        long time = 0;
+
+        while (this.processesLeft > 0) {
+            // Bring every core's running process up to the current time, and release
+            // the lock of every core whose process just terminated.
+            for (Core core : this.cores) {
+                core.advanceTo(time);
+            }
+            // Place every arrival on a ready queue according to the policy
+            while (this.nextArrival < this.arrivalOrder.length
+                    && this.arrivalOrder[this.nextArrival].getArrivalTime() <= time) {
+                Process p = this.arrivalOrder[this.nextArrival++];
+                p.enterReadyQueue(p.getArrivalTime());
+                if (this.globalQueue != null) {
+                    this.globalQueue.add(p);
+                } else {
+                    Core core = leastLoadedCore();
+                    p.setCore(core.index);
+                    core.readyQueue.add(p);
+                }
+            }
+            if (preemptive) {
+                preempt(time);
+            }
+            // Every idle core takes the head process of the queue it takes work from
+            for (Core core : this.cores) {
+                if (!core.lock.isLocked()) {
+                    PriorityQueue<Process> queue = queueFor(core);
+                    if (queue != null && !queue.isEmpty()) {
+                        core.dispatch(queue.poll(), time);
+                    }
+                }
+            }
+
+            // The next event is the next arrival or the next completion on any core
+            long nextEvent = Long.MAX_VALUE;
+            if (this.nextArrival < this.arrivalOrder.length) {
+                nextEvent = this.arrivalOrder[this.nextArrival].getArrivalTime();
+            }
+            for (Core core : this.cores) {
+                if (core.lock.isLocked()) {
+                    nextEvent = Math.min(nextEvent,
+                            core.runStart + core.lock.getProcess().getCPUTime());
+                    if (preemptive && core.runStart > time) {
+                        // the end of a switch, when the core can be preempted again
+                        nextEvent = Math.min(nextEvent, core.runStart);
+                    }
+                }
+            }
+            if (nextEvent == Long.MAX_VALUE) {
+                break;
+            }
+            time = nextEvent;
+        }
+        for (Core core : this.cores) {
+            core.advanceTo(time);
+        }
+        this.makespan = time;
+    }
+
+    // With SRTF, lets waiting processes preempt running ones that have more CPU time
+    // remaining. A core that is still switching to its process can't be preempted yet.
+    private void preempt(long time) {
+        if (this.globalQueue != null) {
+            // The head of the global queue takes any idle core first, otherwise the
+            // core whose process has the most CPU time remaining, if that is more than
+            // the head's.
+            while (!this.globalQueue.isEmpty()) {
+                Core victim = null;
+                for (Core core : this.cores) {
+                    if (!core.lock.isLocked()) {
+                        victim = null;
+                        break;
+                    }
+                    if (core.isSwitching(time)) {
+                        continue;
+                    }
+                    if (victim == null || core.lock.getProcess().getCPUTime()
+                            > victim.lock.getProcess().getCPUTime()) {
+                        victim = core;
+                    }
+                }
+                if (victim == null || this.globalQueue.peek().getCPUTime()
+                        >= victim.lock.getProcess().getCPUTime()) {
+                    return;
+                }
+                this.globalQueue.add(victim.release(time));
+                victim.dispatch(this.globalQueue.poll(), time);
+            }
+            return;
+        }
+        for (Core core : this.cores) {
+            if (core.lock.isLocked() && !core.isSwitching(time)
+                    && !core.readyQueue.isEmpty()
+                    && core.readyQueue.peek().getCPUTime()
+                    < core.lock.getProcess().getCPUTime()) {
+                core.readyQueue.add(core.release(time));
+                core.dispatch(core.readyQueue.poll(), time);
+            }
+        }
+    }
+
+    // Returns the queue an idle core takes its next process from, or null if there
+    // is none.
+    private PriorityQueue<Process> queueFor(Core core) {
+        if (this.globalQueue != null) {
+            return this.globalQueue;
+        }
+        if (!core.readyQueue.isEmpty() || this.policy == LoadBalancing.AFFINITY) {
+            return core.readyQueue;
+        }
+        // Work stealing: take from the longest queue of any other core
+        Core busiest = null;
+        for (Core other : this.cores) {
+            if (!other.readyQueue.isEmpty()
+                    && (busiest == null
+                    || other.readyQueue.size() > busiest.readyQueue.size())) {
+                busiest = other;
+            }
+        }
+        return busiest == null ? null : busiest.readyQueue;
+    }
+
+    // The core with the fewest processes, counting the one holding its lock. Ties go
+    // to the lowest numbered core.
+    private Core leastLoadedCore() {
+        Core least = this.cores[0];
+        for (Core core : this.cores) {
+            if (core.load() < least.load()) {
+                least = core;
+            }
+        }
+        return least;
+    }
+
+    // A ready queue ordered for this object's type of scheduling.
+    private PriorityQueue<Process> newReadyQueue() {
+        Comparator<Process> comparator = this.type == SchedulingType.FCFS
+                ? new FCFSComparator() : new SJFComparator();
+        return new PriorityQueue<>(comparator);
+    }
+
+    /**
+     * Getter for the number of cores
+     * @return int - the number of cores
+     */
+    public int getNumCores() {
+        return this.cores.length;
+    }
+
+    /**
+     * Returns the fraction of the simulation during which a core was executing a
+     * process.
+     * @param core - the index of the core
+     * @return double - the utilization of the core, between 0 and 1
+     */
+    public double getCoreUtilization(int core) {
+        if (this.makespan == 0) {
+            return 0;
+        }
+        return (double) this.cores[core].busyTime / this.makespan;
+    }
+
+    /**
+     * Returns the schedule of execution of one core.
+     * @param core - the index of the core
+     * @return Timeline - the schedule of execution of the core
+     */
+    public Timeline getTimeline(int core) {
+        return this.cores[core].timeline;
+    }
+
+    /**
+     * Getter for the number of times a process was dispatched on a different core than
+     * the one it last ran or was queued on.
+     * @return long - the number of migrations
+     */
+    public long getMigrations() {
+        return this.migrations;
+    }
+
+    /**
+     * Returns the total number of context switches on every core.
+     * @return long - the number of context switches
+     */
+    public long getContextSwitches() {
+        long switches = 0;
+        for (Core core : this.cores) {
+            switches += core.contextSwitches;
+        }
+        return switches;
+    }
+
+    /**
+     * Returns the total time lost to context switches and migrations on every core.
+     * @return long - the time spent switching
+     */
+    public long getSwitchTime() {
+        long switchTime = 0;
+        for (Core core : this.cores) {
+            switchTime += core.timeline.getTotalSwitchTime();
+        }
+        return switchTime;
+    }
+
+    /**
+     * Getter for the time the last process terminated
+     * @return long - the makespan of the simulation
+     */
+    public long getMakespan() {
+        return this.makespan;
+    }
+
+    /**
+     * Returns the average waiting time of every process in the work load.
+     *
+     * @return double - the Avg. Waiting Time.
+     */
+    public double getAvgWaitTime() {
+        return this.waitingTimes.getMean();
+    }
+
+    @Override
+    public LatencyHistogram getWaitingTimeHistogram() {
+        return this.waitingTimes;
+    }
+
+    @Override
+    public LatencyHistogram getTurnaroundTimeHistogram() {
+        return this.turnaroundTimes;
+    }
+
+    @Override
+    public LatencyHistogram getResponseTimeHistogram() {
+        return this.responseTimes;
+    }
+
+    // One simulated core: its lock, its ready queue and what it has executed.
+    private class Core {
+        private final int index;
+        private final MyLock lock;
+        // unused with a global queue
+        private final PriorityQueue<Process> readyQueue;
+        private final Timeline timeline;
+        // the time the process holding the lock last started executing, or was last
+        // brought up to date
+        private long runStart;
+        // total time spent executing processes
+        private long busyTime;
+        // the process that last held the lock, and the number of times the lock went
+        // to a different process
+        private Process lastOwner;
+        private long contextSwitches;
+
+        Core(int index) {
+            this.index = index;
+            this.lock = new MyLock();
+            this.readyQueue = newReadyQueue();
+            this.timeline = new Timeline();
+        }
+
+        // number of processes on this core, counting the one holding the lock
+        int load() {
+            return this.readyQueue.size() + (this.lock.isLocked() ? 1 : 0);
+        }
+
+        // Gives the process the lock. It starts executing once the cost of any
+        // context switch and migration has been paid.
+        void dispatch(Process p, long time) {
+            long cost = 0;
+            if (p.getCore() >= 0 && p.getCore() != this.index) {
+                migrations++;
+                cost += config.getMigrationCost();
+            }
+            if (p != this.lastOwner) {
+                this.contextSwitches++;
+                cost += config.getContextSwitchCost();
+                this.lastOwner = p;
+            }
+            this.timeline.append(Timeline.CONTEXT_SWITCH, time, cost);
+            p.setCore(this.index);
+            p.dispatch(time);
+            this.lock.lock(p);
+            this.runStart = time + cost;
+        }
+
+        // Executes the process holding the lock up to the given time, and terminates
+        // it if it has finished.
+        void advanceTo(long time) {
+            // nothing executes while the core is still switching to the process
+            if (!this.lock.isLocked() || time <= this.runStart) {
+                return;
+            }
+            Process p = this.lock.getProcess();
+            int executed = p.execute((int) (time - this.runStart));
+            this.timeline.append(p.getID(), this.runStart, executed);
+            this.busyTime += executed;
+            this.runStart = time;
+            if (p.getCPUTime() == 0) {
+                p.terminate(time);
+                this.lock.unlock();
+                processesLeft--;
+                waitingTimes.record(p.getWaitingTime());
+                turnaroundTimes.record(p.getTurnaroundTime());
+                responseTimes.record(p.getResponseTime());
+            }
+        }
+
+        // true if the core is still switching to the process holding its lock
+        boolean isSwitching(long time) {
+            return this.lock.isLocked() && time < this.runStart;
+        }
+
+        // Takes the lock away from the running process and returns it, in the ready
+        // state. The caller puts it back on a ready queue. The core must have finished
+        // switching to the process.
+        Process release(long time) {
+            Process p = this.lock.getProcess();
+            this.lock.unlock();
+            p.enterReadyQueue(time);
+            return p;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A class that runs a grid of experiments: every combination of arrival rate, burst
+ * distribution and scheduling algorithm is a cell of the grid, and each cell is
+ * simulated several times over freshly generated work loads. The results of all runs
+ * of a cell are aggregated into a SweepResult, which is handed to a consumer as soon as
+ * that cell finishes, so results stream out while the rest of the grid is running.
+ *
+ * Every cell, and every run within a cell, is a task on a fork-join pool, so idle
+ * threads steal work from busy ones and the whole grid is spread across all cores.
+ * Each run generates its own Workload and builds its own Scheduler, which are only
+ * ever touched by the thread running that task, so no locks are shared between runs.
+ *
+ * Work loads are generated from seeds derived from the sweep's seed and the position
+ * of the run in the grid, so the same sweep always produces the same results, no matter
+ * how the tasks were scheduled. Every algorithm in a cell sees the same work loads.
+ *
+ * @author Brett Bernardi
+ */
+public class ParameterSweep {
+    // the axes of the grid
+    private final double[] arrivalRates;
+    private final BurstDistribution[] burstDistributions;
+    private final SchedulingType[] types;
+    // mean burst length for every burst distribution
+    private final double meanBurst;
+    // number of processes in each generated work load
+    private final int processesPerRun;
+    // number of runs simulated in each cell
+    private final int runsPerCell;
+    // seed all work load seeds are derived from
+    private final long seed;
+    // The pool the runs are simulated on
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for a sweep that runs on the common fork-join pool.
+     * @param arrivalRates - the arrival rates to sweep
+     * @param burstDistributions - the burst distributions to sweep
+     * @param types - the types of scheduling to sweep
+     * @param meanBurst - mean burst length for every burst distribution
+     * @param processesPerRun - number of processes in each generated work load
+     * @param runsPerCell - number of runs simulated in each cell
+     * @param seed - seed all work load seeds are derived from
+     */
+    public ParameterSweep(double[] arrivalRates, BurstDistribution[] burstDistributions,
+                          SchedulingType[] types, double meanBurst, int processesPerRun,
+                          int runsPerCell, long seed) {
+        this(arrivalRates, burstDistributions, types, meanBurst, processesPerRun,
+                runsPerCell, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a sweep that runs on the given pool.
+     * @param arrivalRates - the arrival rates to sweep
+     * @param burstDistributions - the burst distributions to sweep
+     * @param types - the types of scheduling to sweep
+     * @param meanBurst - mean burst length for every burst distribution
+     * @param processesPerRun - number of processes in each generated work load
+     * @param runsPerCell - number of runs simulated in each cell
+     * @param seed - seed all work load seeds are derived from
+     * @param pool - the pool the runs are simulated on
+     */
+    public ParameterSweep(double[] arrivalRates, BurstDistribution[] burstDistributions,
+                          SchedulingType[] types, double meanBurst, int processesPerRun,
+                          int runsPerCell, long seed, ForkJoinPool pool) {
+        this.arrivalRates = arrivalRates.clone();
+        this.burstDistributions = burstDistributions.clone();
+        this.types = types.clone();
+        this.meanBurst = meanBurst;
+        this.processesPerRun = processesPerRun;
+        this.runsPerCell = runsPerCell;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Runs every cell of the grid and waits for all of them to finish. The consumer
+     * is called once per cell, as soon as the cell finishes, from whichever pool thread
+     * finished it, so it may be called from several threads at once.
+     * @param consumer - receives the result of each cell
+     */
+    public void run(Consumer<SweepResult> consumer) {
+        runCells((result, cell) -> consumer.accept(result));
+    }
+
+    /**
+     * Runs every cell of the grid and returns all of the results, in grid order.
+     * @return List - the result of each cell
+     */
+    public List<SweepResult> runAll() {
+        // each cell writes its own slot, and invoke() waits for every one of them
+        SweepResult[] results = new SweepResult[this.arrivalRates.length
+                * this.burstDistributions.length * this.types.length];
+        runCells((result, cell) -> results[cell] = result);
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    // Runs every cell of the grid, handing each result to the consumer along with the
+    // index of its cell in grid order.
+    private void runCells(ObjIntConsumer<SweepResult> consumer) {
+        List<CellTask> cells = new ArrayList<>();
+        for (int r = 0; r < this.arrivalRates.length; r++) {
+            for (int d = 0; d < this.burstDistributions.length; d++) {
+                for (SchedulingType type : this.types) {
+                    cells.add(new CellTask(cells.size(), r, d, type, consumer));
+                }
+            }
+        }
+        this.pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(cells);
+            }
+        });
+    }
+
+    // The seed of the work load for one run: depends on the position of the run in the
+    // grid but not on the algorithm, so every algorithm sees the same work loads.
+    private long runSeed(int rateIndex, int distributionIndex, int run) {
+        long position = ((long) rateIndex * this.burstDistributions.length
+                + distributionIndex) * this.runsPerCell + run;
+        return new SplittableRandom(this.seed + 0x9E3779B97F4A7C15L * position)
+                .nextLong();
+    }
+
+    // A task that simulates every run of one cell and aggregates the results. Tasks
+    // are never serialized.
+    @SuppressWarnings("serial")
+    private class CellTask extends RecursiveAction {
+        // the index of the cell in grid order
+        private final int cell;
+        private final int rateIndex;
+        private final int distributionIndex;
+        private final SchedulingType type;
+        private final ObjIntConsumer<SweepResult> consumer;
+
+        CellTask(int cell, int rateIndex, int distributionIndex, SchedulingType type,
+                 ObjIntConsumer<SweepResult> consumer) {
+            this.cell = cell;
+            this.rateIndex = rateIndex;
+            this.distributionIndex = distributionIndex;
+            this.type = type;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            List<RunTask> runs = new ArrayList<>();
+            for (int run = 0; run < runsPerCell; run++) {
+                runs.add(new RunTask(runSeed(rateIndex, distributionIndex, run)));
+            }
+            ForkJoinTask.invokeAll(runs);
+
+            // Merge the histograms of every run, one per metric
+            LatencyHistogram waiting = new LatencyHistogram();
+            LatencyHistogram turnaround = new LatencyHistogram();
+            LatencyHistogram response = new LatencyHistogram();
+            for (RunTask run : runs) {
+                Scheduler scheduler = run.join();
+                waiting.add(scheduler.getWaitingTimeHistogram());
+                turnaround.add(scheduler.getTurnaroundTimeHistogram());
+                response.add(scheduler.getResponseTimeHistogram());
+            }
+            consumer.accept(new SweepResult(arrivalRates[rateIndex],
+                    burstDistributions[distributionIndex], type, runsPerCell,
+                    MetricSummary.of(waiting), MetricSummary.of(turnaround),
+                    MetricSummary.of(response)), cell);
+        }
+
+        // A task that generates and simulates one work load.
+        @SuppressWarnings("serial")
+        private class RunTask extends RecursiveTask<Scheduler> {
+            private final long seed;
+
+            RunTask(long seed) {
+                this.seed = seed;
+            }
+
+            @Override
+            protected Scheduler compute() {
+                Workload workLoad = new WorkloadGenerator(arrivalRates[rateIndex],
+                        burstDistributions[distributionIndex], meanBurst, this.seed)
+                        .generate(processesPerRun);
+                Scheduler scheduler = new Scheduler(workLoad, type,
+                        SimulationEngine.EVENT_DRIVEN);
+                scheduler.simulate();
+                return scheduler;
+            }
+        }
+    }
+}
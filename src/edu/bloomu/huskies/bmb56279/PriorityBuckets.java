@@ -0,0 +1,159 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * The ready queue of the priority scheduling types: one first-in, first-out bucket
+ * per priority level, and a bitmap of the non-empty buckets, like the O(1) scheduler of
+ * Linux 2.6. Adding a process and taking the most urgent one are both O(1), no matter
+ * how many processes are ready: the most urgent bucket is found with one bit scan.
+ *
+ * Waiting processes age: every time age() moves the queue to its next epoch, every
+ * process in it becomes one level more urgent, down to level 0. Rather than moving
+ * every process, the buckets are indexed circularly from a rotating offset, the current
+ * epoch. A process with effective priority p that enters the queue in epoch e goes in
+ * bucket (e + p) mod 64, and its effective priority in a later epoch is the distance
+ * from the offset to its bucket; poll() stores it back on the process, so a preempted
+ * process re-enters the queue at the level it had aged to. There are 64 buckets, more
+ * than there are priority levels, so a new process never lands in the bucket of a
+ * process that has aged to level 0. Processes at level 0 stay at the offset: when the
+ * offset moves, the bucket it leaves is joined with the next one, older processes
+ * first. Each process is moved at most once, when it reaches level 0, so aging costs
+ * O(1) per process plus O(1) per epoch.
+ *
+ * @author Brett Bernardi
+ */
+class PriorityBuckets {
+    // number of buckets: the number of bits in the bitmap
+    private static final int BUCKETS = Long.SIZE;
+    private static final int MASK = BUCKETS - 1;
+
+    private final ProcessRing[] buckets;
+    // bit i is set if bucket i is not empty
+    private long occupied;
+    // the number of times the queue has aged; the bucket of level 0 is epoch mod 64
+    private long epoch;
+    // number of processes in the queue
+    private int size;
+
+    /**
+     * Constructor for an empty queue in epoch 0.
+     */
+    PriorityBuckets() {
+        this.buckets = new ProcessRing[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new ProcessRing();
+        }
+        this.occupied = 0;
+        this.epoch = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a process to the back of the bucket of its effective priority.
+     * @param p - the process to add
+     */
+    void add(Process p) {
+        int bucket = (int) ((this.epoch + p.getEffectivePriority()) & MASK);
+        this.buckets[bucket].addLast(p);
+        this.occupied |= 1L << bucket;
+        this.size++;
+    }
+
+    /**
+     * Removes and returns the process at the front of the most urgent bucket, setting
+     * its effective priority to the level it has aged to.
+     * @return Process - the most urgent process, or null if the queue is empty
+     */
+    Process poll() {
+        if (this.size == 0) {
+            return null;
+        }
+        int bucket = firstBucket();
+        Process p = this.buckets[bucket].pollFirst();
+        p.setEffectivePriority((int) ((bucket - this.epoch) & MASK));
+        if (this.buckets[bucket].isEmpty()) {
+            this.occupied &= ~(1L << bucket);
+        }
+        this.size--;
+        return p;
+    }
+
+    /**
+     * Returns the effective priority of the most urgent process: its priority minus
+     * the number of epochs it has waited, but no less than 0.
+     * @return int - the most urgent effective priority, or Integer.MAX_VALUE if the
+     * queue is empty
+     */
+    int peekPriority() {
+        if (this.size == 0) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) ((firstBucket() - this.epoch) & MASK);
+    }
+
+    /**
+     * Ages the queue up to the given epoch. Every process ages by one level per epoch,
+     * so after 64 epochs every process in the queue is at level 0, and any further
+     * epochs only move the offset.
+     * @param target - the epoch to age to, no earlier than the current one
+     */
+    void age(long target) {
+        for (int steps = 0; this.epoch < target && steps < BUCKETS; steps++) {
+            int top = (int) (this.epoch & MASK);
+            int next = (top + 1) & MASK;
+            if ((this.occupied & (1L << top)) != 0) {
+                // the processes already at level 0 stay in front of those reaching it
+                this.buckets[next].drainTo(this.buckets[top]);
+                swap(top, next);
+            }
+            this.epoch++;
+        }
+        if (this.epoch < target) {
+            // every process is in the bucket of level 0; move it to the new offset
+            int top = (int) (this.epoch & MASK);
+            int bucket = (int) (target & MASK);
+            if (top != bucket && (this.occupied & (1L << top)) != 0) {
+                swap(top, bucket);
+            }
+            this.epoch = target;
+        }
+    }
+
+    /**
+     * Getter for the current epoch
+     * @return long - the number of times the queue has aged
+     */
+    long getEpoch() {
+        return this.epoch;
+    }
+
+    /**
+     * Returns true if the queue holds no processes.
+     * @return boolean - true if empty
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of processes in the queue.
+     * @return int - the size of the queue
+     */
+    int size() {
+        return this.size;
+    }
+
+    // The most urgent non-empty bucket: the first one at or after the offset.
+    private int firstBucket() {
+        int offset = (int) (this.epoch & MASK);
+        return (offset + Long.numberOfTrailingZeros(Long.rotateRight(this.occupied,
+                offset))) & MASK;
+    }
+
+    // Swaps the contents of a non-empty bucket with an empty one.
+    private void swap(int full, int empty) {
+        ProcessRing ring = this.buckets[full];
+        this.buckets[full] = this.buckets[empty];
+        this.buckets[empty] = ring;
+        this.occupied = (this.occupied & ~(1L << full)) | (1L << empty);
+    }
+}
@@ -15,53 +15,165 @@ package edu.bloomu.huskies.bmb56279;
  * process first enters the ready queue, are
  * stored as fields of the class. Each instance of this class ( a process) also has a
  * known CPU burst length, which is the amount of time
- * spent being executed by the CPU. We assume that each process will only have one single
- * CPU burst. The waiting time of a process is defined as the amount of time spent on
- * the ready queue. The waiting time and the remaining CPU will be calculated
- * dynamically through methods of this class.
+ * spent being executed by the CPU. A process may have more than one CPU burst, with an
+ * I/O burst of a known length between each of them: when a CPU burst ends, the process
+ * is blocked (the waiting state) until its I/O completes, and then goes back onto the
+ * ready queue for its next CPU burst. The waiting time of a process is defined as the
+ * amount of time spent on the ready queue. The waiting time and the remaining CPU will
+ * be calculated dynamically through methods of this class. Rather than being counted
+ * one unit at a time, the waiting time is derived from timestamps: the time the process
+ * enters the ready queue and the time it is dispatched to the CPU.
+ *
+ * Each process also has a static priority, like a Unix nice level, from 0 (the most
+ * urgent) to PRIORITY_LEVELS - 1. It is only used by the priority scheduling types,
+ * and by CFS, which weighs each process's share of the CPU by its nice level, the
+ * priority minus DEFAULT_PRIORITY.
  *
  * @author Brett Bernardi
  */
 public class Process {
+    // the number of priority levels, and the priority of a process if none is given
+    public static final int PRIORITY_LEVELS = 40;
+    public static final int DEFAULT_PRIORITY = 20;
 
     // the exact time the process entered the ready queue
     private final int arrivalTime;
-    // the amount of time the process spent on the ready queue
-    private int waitingTime;
+    // the amount of time the process spent on the ready queue, up to the last time it
+    // was dispatched
+    private long waitingTime;
+    // the time the process most recently entered the ready queue
+    private long readyTime;
+    // the time the process was first given the CPU, or -1 if it never has been
+    private long firstRunTime;
+    // the time the process terminated, or -1 if it hasn't yet
+    private long completionTime;
     // process ID
-    private final char PID;
-    // the Process's burst length
-    private final int burstLength;
-    // The amount of time remaining in this process's sole CPU burst. A process that
+    private final int PID;
+    // the arrival time in the high half and the process ID in the low half, which
+    // orders processes with equal scheduling keys; see ProcessComparator
+    private final long tieKey;
+    // The Process's burst lengths, alternating between CPU and I/O bursts and starting
+    // and ending with a CPU burst, and the index of the current CPU burst in it
+    private final int[] bursts;
+    private int burstIndex;
+    // The amount of time remaining in this process's current CPU burst. A process that
     // has yet to be put on the CPU will have a cpuTimeRemaining = to CPU burst length.
     private int cpuTimeRemaining;
+    // the time the process's current I/O burst completes. Only meaningful while the
+    // process is in the waiting state.
+    private long wakeTime;
     // process state
     private ProcessState state;
+    // the core the process last ran on (or was queued on), or -1 if it never has been.
+    // Only used when simulating a multi-core CPU.
+    private int core;
+    // the level of the multilevel feedback queue the process is on. Only used by MLFQ.
+    private int queueLevel;
+    // the virtual runtime of the process: its CPU time, weighted by its nice level.
+    // Only used by CFS.
+    private long vruntime;
+    // the static priority of the process; the lower, the more urgent
+    private final int priority;
+    // the priority the process has aged to: its static priority, less the levels it
+    // gained waiting on the ready queue during its current CPU burst. Only used by the
+    // priority scheduling types.
+    private int effectivePriority;
 
     /**
      * Constructor that initializes a Process instance and initializes all fields that
      * are appropriate. The CPU time remaining is equal to the burst length before the
      * Process ever gets to the CPU.
-     * @param n - char the ID of the process
+     * @param n - int the ID of the process
      * @param arrivalTime - The time the process gets added to the ready queue
      * @param burstLength - The length of a processes' sole cpu burst.
      */
-    public Process(char n, int arrivalTime, int burstLength) {
+    public Process(int n, int arrivalTime, int burstLength) {
+        this(n, arrivalTime, new int[] {burstLength});
+    }
+
+    /**
+     * Constructor for a Process that alternates between CPU and I/O bursts. The
+     * sequence starts and ends with a CPU burst, so it has an odd length; a sequence
+     * of length one is a process with a sole CPU burst.
+     * @param n - int the ID of the process
+     * @param arrivalTime - The time the process gets added to the ready queue
+     * @param bursts - The alternating CPU and I/O burst lengths of the process
+     */
+    public Process(int n, int arrivalTime, int[] bursts) {
+        this(n, arrivalTime, bursts, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Constructor for a Process with a priority. See the constructor above for the
+     * burst lengths.
+     * @param n - int the ID of the process
+     * @param arrivalTime - The time the process gets added to the ready queue
+     * @param bursts - The alternating CPU and I/O burst lengths of the process
+     * @param priority - The static priority, from 0 (the most urgent) to
+     * PRIORITY_LEVELS - 1
+     */
+    public Process(int n, int arrivalTime, int[] bursts, int priority) {
+        if (priority < 0 || priority >= PRIORITY_LEVELS) {
+            throw new IllegalArgumentException("Priority " + priority + " is not " +
+                    "between 0 and " + (PRIORITY_LEVELS - 1));
+        }
         this.PID = n;
+        this.priority = priority;
+        this.effectivePriority = priority;
+        this.tieKey = ((long) arrivalTime << 32) | (n & 0xFFFFFFFFL);
         this.arrivalTime = arrivalTime;
-        this.burstLength = burstLength;
+        this.bursts = bursts;
+        this.burstIndex = 0;
         // these are equal initially
-        this.cpuTimeRemaining = burstLength;
+        this.cpuTimeRemaining = bursts[0];
+        // it enters the ready queue when it arrives
+        this.readyTime = arrivalTime;
+        this.firstRunTime = -1;
+        this.completionTime = -1;
+        this.core = -1;
     }
 
     /**
      * Getter for the Process ID
-     * @return String - the Process ID
+     * @return int - the Process ID
      */
-    public char getID() {
+    public int getID() {
         return PID;
     }
 
+    /**
+     * Getter for the static priority of the process
+     * @return int - the priority; the lower, the more urgent
+     */
+    public int getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Setter for the priority the process has aged to
+     * @param effectivePriority - the priority, no higher than the static one
+     */
+    public void setEffectivePriority(int effectivePriority) {
+        this.effectivePriority = effectivePriority;
+    }
+
+    /**
+     * Getter for the priority the process has aged to
+     * @return int - the effective priority; the lower, the more urgent
+     */
+    public int getEffectivePriority() {
+        return this.effectivePriority;
+    }
+
+    /**
+     * Getter for the key that breaks ties between processes with equal scheduling
+     * keys: the arrival time, then the process ID, packed into one long
+     * @return long - the tie key
+     */
+    long getTieKey() {
+        return this.tieKey;
+    }
+
     /**
      * Have this process execute on the CPU for one unit of time. If the execution was
      * successful, return true. If unsuccessful (possible if there is no remaining
@@ -78,6 +190,19 @@ public class Process {
 
     }
 
+    /**
+     * Have this process execute on the CPU for the given number of units of time, or
+     * until its remaining CPU time runs out, whichever comes first. Used by the
+     * event-driven engine, which runs a process through a whole stretch of time at once.
+     * @param units - the number of units of time to execute for
+     * @return int - the number of units of time actually executed
+     */
+    public int execute(int units) {
+        int executed = Math.min(units, this.cpuTimeRemaining);
+        this.cpuTimeRemaining -= executed;
+        return executed;
+    }
+
     /**
      * Getter for the remaining CPU time
      * @return int - CPUTime
@@ -86,6 +211,95 @@ public class Process {
         return this.cpuTimeRemaining;
     }
 
+    /**
+     * Getter for the length of this process's current CPU burst
+     * @return int - Burst Length
+     */
+    public int getBurstLength() {
+        return this.bursts[this.burstIndex];
+    }
+
+    /**
+     * Returns the total length of all of this process's CPU bursts.
+     * @return long - the total CPU time
+     */
+    public long getTotalCPUTime() {
+        long total = 0;
+        for (int i = 0; i < this.bursts.length; i += 2) {
+            total += this.bursts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns true if the current CPU burst is the process's last one, in which case
+     * the process terminates rather than blocks when it finishes.
+     * @return boolean - true if there is no I/O burst left
+     */
+    public boolean isLastBurst() {
+        return this.burstIndex == this.bursts.length - 1;
+    }
+
+    /**
+     * Puts the process in the waiting state for the length of its next I/O burst, and
+     * sets up its next CPU burst, which starts back at the static priority. Called
+     * once its current CPU burst has finished.
+     * @param time - the time the process started its I/O
+     * @return long - the time the I/O completes and the process is ready again
+     */
+    public long block(long time) {
+        this.wakeTime = time + this.bursts[this.burstIndex + 1];
+        this.burstIndex += 2;
+        this.cpuTimeRemaining = this.bursts[this.burstIndex];
+        this.effectivePriority = this.priority;
+        this.state = ProcessState.WAITING;
+        return this.wakeTime;
+    }
+
+    /**
+     * Getter for the time the process's current I/O burst completes. Only meaningful
+     * while the process is in the waiting state.
+     * @return long - the wake-up time
+     */
+    public long getWakeTime() {
+        return this.wakeTime;
+    }
+
+    /**
+     * Getter for the time the process most recently entered the ready queue, or its
+     * arrival time if it hasn't yet.
+     * @return long - the ready time
+     */
+    public long getReadyTime() {
+        return this.readyTime;
+    }
+
+    /**
+     * Restores the progress of a process from a checkpoint: everything that changes
+     * while it is in the system, up to the point it terminates.
+     * @param cpuTimeRemaining - the time left in its current CPU burst
+     * @param waitingTime - the time spent on the ready queue up to the last dispatch
+     * @param readyTime - the time it last entered the ready queue
+     * @param firstRunTime - the time it was first given the CPU, or -1
+     * @param state - its state
+     */
+    void restore(int cpuTimeRemaining, long waitingTime, long readyTime,
+                 long firstRunTime, ProcessState state) {
+        this.cpuTimeRemaining = cpuTimeRemaining;
+        this.waitingTime = waitingTime;
+        this.readyTime = readyTime;
+        this.firstRunTime = firstRunTime;
+        this.state = state;
+    }
+
+    /**
+     * Getter for the time the process was first given the CPU
+     * @return long - the first run time, or -1 if it hasn't run yet
+     */
+    public long getFirstRunTime() {
+        return this.firstRunTime;
+    }
+
     /**
      * Getter for Process Arrival Time
      * @return int - Arrival Time
@@ -104,17 +318,61 @@ public class Process {
     }
 
     /**
-     * This will increment the waiting time by one unit of time for every method call.
+     * Puts the process in the ready state and records the time it entered the ready
+     * queue, which starts the clock on its waiting time.
+     * @param time - the time the process entered the ready queue
      */
-    public void incrementWaitingTime() {
-        this.waitingTime++;
+    public void enterReadyQueue(long time) {
+        this.readyTime = time;
+        this.state = ProcessState.READY;
     }
 
     /**
-     * Getter for waiting time field.
-     * @return int - the waiting time
+     * Puts the process in the running state and adds the time it spent on the ready
+     * queue since it last entered it to the waiting time.
+     * @param time - the time the process was given the CPU
      */
-    public int getWaitingTime() {
+    public void dispatch(long time) {
+        this.waitingTime += time - this.readyTime;
+        this.state = ProcessState.RUNNING;
+        if (this.firstRunTime < 0) {
+            this.firstRunTime = time;
+        }
+    }
+
+    /**
+     * Puts the process in the terminated state and records the time it terminated.
+     * @param time - the time the process finished executing
+     */
+    public void terminate(long time) {
+        this.completionTime = time;
+        this.state = ProcessState.TERMINATED;
+    }
+
+    /**
+     * Getter for the turnaround time: the amount of time from the process's arrival
+     * until it terminated. Only meaningful once the process has terminated.
+     * @return long - the turnaround time
+     */
+    public long getTurnaroundTime() {
+        return this.completionTime - this.arrivalTime;
+    }
+
+    /**
+     * Getter for the response time: the amount of time from the process's arrival
+     * until it was first given the CPU. Only meaningful once the process has run.
+     * @return long - the response time
+     */
+    public long getResponseTime() {
+        return this.firstRunTime - this.arrivalTime;
+    }
+
+    /**
+     * Getter for waiting time field. Only includes time spent on the ready queue up
+     * to the last dispatch, so it is final once the process has terminated.
+     * @return long - the waiting time
+     */
+    public long getWaitingTime() {
         return this.waitingTime;
     }
 
@@ -126,6 +384,54 @@ public class Process {
         this.state = s;
     }
 
+    /**
+     * Setter for the core the process is on
+     * @param core - the index of the core
+     */
+    public void setCore(int core) {
+        this.core = core;
+    }
+
+    /**
+     * Getter for the core the process last ran on, or was last queued on
+     * @return int - the index of the core, or -1 if none yet
+     */
+    public int getCore() {
+        return this.core;
+    }
+
+    /**
+     * Setter for the multilevel feedback queue level of the process
+     * @param queueLevel - the level, 0 being the top
+     */
+    public void setQueueLevel(int queueLevel) {
+        this.queueLevel = queueLevel;
+    }
+
+    /**
+     * Getter for the multilevel feedback queue level of the process
+     * @return int - the level, 0 being the top
+     */
+    public int getQueueLevel() {
+        return this.queueLevel;
+    }
+
+    /**
+     * Setter for the virtual runtime of the process
+     * @param vruntime - the virtual runtime, in the units of FairRunQueue
+     */
+    public void setVruntime(long vruntime) {
+        this.vruntime = vruntime;
+    }
+
+    /**
+     * Getter for the virtual runtime of the process
+     * @return long - the virtual runtime, in the units of FairRunQueue
+     */
+    public long getVruntime() {
+        return this.vruntime;
+    }
+
     /**
      * Getting for the state of the process
      * @return ProcessType - The process type
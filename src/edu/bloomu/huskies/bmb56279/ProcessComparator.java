@@ -0,0 +1,34 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.Comparator;
+
+/**
+ * The base class of the Comparators that order a ready queue. A subclass only supplies
+ * the primary key of a process, as a long; processes with equal primary keys are
+ * ordered by arrival time, and then by process ID. Every process has a distinct ID, so
+ * no two processes ever compare as equal, and the head of a ready queue is the same no
+ * matter what order the processes were added in. Schedules are therefore the same from
+ * run to run and from one simulation engine to another.
+ *
+ * Both tie breakers are packed into one long per process when it is created, so a
+ * comparison is at most two long comparisons, which can't overflow, and allocates
+ * nothing.
+ *
+ * @author Brett Bernardi
+ */
+abstract class ProcessComparator implements Comparator<Process> {
+
+    /**
+     * Returns the key processes are ordered by first. The smaller the key, the closer
+     * to the head of the ready queue.
+     * @param p - the process
+     * @return long - the primary key of the process
+     */
+    abstract long primaryKey(Process p);
+
+    @Override
+    public final int compare(Process p1, Process p2) {
+        int c = Long.compare(primaryKey(p1), primaryKey(p2));
+        return c != 0 ? c : Long.compare(p1.getTieKey(), p2.getTieKey());
+    }
+}
@@ -0,0 +1,72 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * Maps process IDs to the names they are displayed with. Process IDs are ints numbered
+ * from 0 in the order the processes were given, so there is room for billions of them;
+ * names only matter when a schedule is printed.
+ *
+ * By default, processes are named with letters the way spreadsheet columns are: 0 is
+ * "A", 25 is "Z", 26 is "AA", 27 is "AB", and so on, so the first 26 processes are
+ * named exactly as they always have been and every ID gets a distinct name. Names can
+ * also be given explicitly for some or all of the IDs; any ID without one falls back
+ * to the default.
+ *
+ * @author Brett Bernardi
+ */
+public class ProcessNames {
+    // the name printed for a segment of a Timeline spent switching between processes
+    public static final String CONTEXT_SWITCH_NAME = "*";
+
+    // the default names
+    public static final ProcessNames DEFAULT = new ProcessNames(new String[0]);
+
+    // explicit names, indexed by process ID; null entries use the default name
+    private final String[] names;
+
+    /**
+     * Constructor for a mapping that uses the given names. The process with ID i is
+     * named names[i]; IDs past the end of the array, or whose entry is null, get their
+     * default names.
+     * @param names - the names of the processes, indexed by process ID
+     */
+    public ProcessNames(String[] names) {
+        this.names = names.clone();
+    }
+
+    /**
+     * Returns the name of a process.
+     * @param id - the process ID, or Timeline.CONTEXT_SWITCH
+     * @return String - the name of the process
+     */
+    public String nameOf(int id) {
+        if (id == Timeline.CONTEXT_SWITCH) {
+            return CONTEXT_SWITCH_NAME;
+        }
+        if (id >= 0 && id < this.names.length && this.names[id] != null) {
+            return this.names[id];
+        }
+        return defaultName(id);
+    }
+
+    /**
+     * Returns the default name of a process: its ID written in letters, as in "A", "Z",
+     * "AA", "AB", ..., "ZZ", "AAA".
+     * @param id - the process ID, which can't be negative
+     * @return String - the default name
+     */
+    public static String defaultName(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Process IDs are not negative: " + id);
+        }
+        // bijective base 26: there is no zero digit, so A..Z are 1..26
+        char[] letters = new char[7];
+        int start = letters.length;
+        long n = id + 1L;
+        while (n > 0) {
+            n--;
+            letters[--start] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(letters, start, letters.length - start);
+    }
+}
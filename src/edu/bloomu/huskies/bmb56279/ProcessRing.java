@@ -0,0 +1,102 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * A first-in, first-out queue of processes backed by a circular array, used as the
+ * ready queue for Round Robin and as each level of a multilevel feedback queue. Adding
+ * to the back and taking from the front are both O(1), unlike the O(log n) operations
+ * of the PriorityQueue the other algorithms use, and no node objects are created. The
+ * array doubles in size when it fills up.
+ *
+ * @author Brett Bernardi
+ */
+class ProcessRing {
+    private Process[] elements;
+    // index of the front of the queue
+    private int head;
+    // number of processes in the queue
+    private int size;
+
+    /**
+     * Constructor for an empty queue.
+     */
+    ProcessRing() {
+        this.elements = new Process[16];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a process to the back of the queue.
+     * @param p - the process to add
+     */
+    void addLast(Process p) {
+        if (this.size == this.elements.length) {
+            grow();
+        }
+        this.elements[(this.head + this.size) & (this.elements.length - 1)] = p;
+        this.size++;
+    }
+
+    /**
+     * Removes and returns the process at the front of the queue.
+     * @return Process - the front process, or null if the queue is empty
+     */
+    Process pollFirst() {
+        if (this.size == 0) {
+            return null;
+        }
+        Process p = this.elements[this.head];
+        this.elements[this.head] = null;
+        this.head = (this.head + 1) & (this.elements.length - 1);
+        this.size--;
+        return p;
+    }
+
+    /**
+     * Returns the process at the given position, counting from the front of the queue,
+     * without removing it.
+     * @param i - the position, between 0 and size() - 1
+     * @return Process - the process at that position
+     */
+    Process get(int i) {
+        return this.elements[(this.head + i) & (this.elements.length - 1)];
+    }
+
+    /**
+     * Moves every process in this queue to the back of another queue, in order,
+     * leaving this queue empty.
+     * @param other - the queue to move the processes to
+     */
+    void drainTo(ProcessRing other) {
+        while (this.size > 0) {
+            other.addLast(pollFirst());
+        }
+    }
+
+    /**
+     * Returns true if the queue holds no processes.
+     * @return boolean - true if empty
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of processes in the queue.
+     * @return int - the size of the queue
+     */
+    int size() {
+        return this.size;
+    }
+
+    // Doubles the array, unwrapping the queue so it starts at index 0. The length
+    // stays a power of two, so indices can wrap with a mask instead of a division.
+    private void grow() {
+        Process[] bigger = new Process[this.elements.length * 2];
+        for (int i = 0; i < this.size; i++) {
+            bigger[i] = this.elements[(this.head + i) & (this.elements.length - 1)];
+        }
+        this.elements = bigger;
+        this.head = 0;
+    }
+}
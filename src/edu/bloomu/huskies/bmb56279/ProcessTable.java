@@ -0,0 +1,227 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.Arrays;
+
+/**
+ * A compact, struct-of-arrays representation of a work load. Instead of one Process
+ * object per process, every field of every process is stored in a parallel primitive
+ * array, and a process is simply identified by its index into those arrays. This
+ * costs a few dozen bytes per process with no object headers, no boxed ProcessState
+ * and no pointers to chase, so work loads of tens of millions of processes fit in a
+ * modest heap and create almost no garbage while being simulated by the
+ * CompactScheduler class.
+ *
+ * The state of each process is stored as the ordinal of its ProcessState, in a byte.
+ *
+ * @author Brett Bernardi
+ */
+public class ProcessTable {
+    // every ProcessState, indexed by ordinal; values() copies the array on every call
+    private static final ProcessState[] STATES = ProcessState.values();
+
+    // the exact time each process entered the ready queue
+    private final int[] arrivalTime;
+    // each process's CPU burst length
+    private final int[] burstLength;
+    // the amount of time remaining in each process's CPU burst
+    private final int[] cpuTimeRemaining;
+    // the amount of time each process spent on the ready queue
+    private final long[] waitingTime;
+    // the ordinal of each process's ProcessState
+    private final byte[] state;
+    // number of processes added to the table so far
+    private int size;
+
+    /**
+     * Constructor that creates an empty table with room for the given number of
+     * processes.
+     * @param capacity - the maximum number of processes the table will hold
+     */
+    public ProcessTable(int capacity) {
+        this.arrivalTime = new int[capacity];
+        this.burstLength = new int[capacity];
+        this.cpuTimeRemaining = new int[capacity];
+        this.waitingTime = new long[capacity];
+        this.state = new byte[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a table from a work load of processes represented in a String array of
+     * user input, in the same format the Scheduler class accepts: (Arrival Time, CPU
+     * Burst Length) pairs. See Workload.parse() for how it is validated.
+     * @param workLoad - a String[] array of user input
+     * @return ProcessTable - a table holding every process in the work load
+     * @throws ImproperArguments - thrown if arguments are invalid
+     */
+    public static ProcessTable fromWorkLoad(String[] workLoad) throws ImproperArguments {
+        return fromWorkload(Workload.parse(workLoad));
+    }
+
+    /**
+     * Creates a table holding every process of a work load that has already been
+     * parsed, in the same order. The table only holds a single CPU burst per process,
+     * so a work load with I/O bursts is rejected.
+     * @param workLoad - the work load
+     * @return ProcessTable - a table holding every process in the work load
+     */
+    public static ProcessTable fromWorkload(Workload workLoad) {
+        if (workLoad.hasIO()) {
+            throw new IllegalArgumentException("A ProcessTable can't hold I/O bursts; " +
+                    "use the Scheduler class");
+        }
+        ProcessTable table = new ProcessTable(workLoad.size());
+        for (int i = 0; i < workLoad.size(); i++) {
+            table.add(workLoad.getArrivalTime(i), workLoad.getBurstLength(i));
+        }
+        return table;
+    }
+
+    /**
+     * Adds a new process to the table in the new state.
+     * @param arrival - The time the process gets added to the ready queue
+     * @param burst - The length of the process's sole cpu burst
+     * @return int - the index of the new process
+     */
+    public int add(int arrival, int burst) {
+        if (this.size == this.arrivalTime.length) {
+            throw new IllegalStateException("ProcessTable is full");
+        }
+        int i = this.size++;
+        this.arrivalTime[i] = arrival;
+        this.burstLength[i] = burst;
+        this.cpuTimeRemaining[i] = burst;
+        this.waitingTime[i] = 0;
+        this.state[i] = (byte) ProcessState.NEW.ordinal();
+        return i;
+    }
+
+    /**
+     * Puts every process back in the new state with its full burst remaining and no
+     * waiting time, so the same table can be simulated again.
+     */
+    public void reset() {
+        System.arraycopy(this.burstLength, 0, this.cpuTimeRemaining, 0, this.size);
+        Arrays.fill(this.waitingTime, 0, this.size, 0);
+        Arrays.fill(this.state, 0, this.size, (byte) ProcessState.NEW.ordinal());
+    }
+
+    /**
+     * Returns the indices of every process sorted by arrival time. Processes that
+     * arrive at the same time stay in the order they were added. Sorts packed
+     * (arrival, index) longs so no boxed Integer is ever created.
+     * @return int[] - process indices in order of arrival
+     */
+    public int[] arrivalOrder() {
+        long[] packed = new long[this.size];
+        for (int i = 0; i < this.size; i++) {
+            packed[i] = ((long) this.arrivalTime[i] << 32) | i;
+        }
+        Arrays.parallelSort(packed);
+        int[] order = new int[this.size];
+        for (int i = 0; i < this.size; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Getter for the number of processes in the table
+     * @return int - the number of processes
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the arrival time of a process
+     * @param i - the index of the process
+     * @return int - Arrival Time
+     */
+    public int getArrivalTime(int i) {
+        return this.arrivalTime[i];
+    }
+
+    /**
+     * Getter for the burst length of a process
+     * @param i - the index of the process
+     * @return int - Burst Length
+     */
+    public int getBurstLength(int i) {
+        return this.burstLength[i];
+    }
+
+    /**
+     * Getter for the remaining CPU time of a process
+     * @param i - the index of the process
+     * @return int - CPUTime
+     */
+    public int getCPUTime(int i) {
+        return this.cpuTimeRemaining[i];
+    }
+
+    /**
+     * Getter for the waiting time of a process
+     * @param i - the index of the process
+     * @return long - the waiting time
+     */
+    public long getWaitingTime(int i) {
+        return this.waitingTime[i];
+    }
+
+    /**
+     * Getter for the state of a process
+     * @param i - the index of the process
+     * @return ProcessState - the state of the process
+     */
+    public ProcessState getState(int i) {
+        return STATES[this.state[i]];
+    }
+
+    /**
+     * Have a process execute on the CPU for the given number of units of time, or
+     * until its remaining CPU time runs out, whichever comes first.
+     * @param i - the index of the process
+     * @param units - the number of units of time to execute for
+     * @return int - the number of units of time actually executed
+     */
+    public int execute(int i, int units) {
+        int executed = Math.min(units, this.cpuTimeRemaining[i]);
+        this.cpuTimeRemaining[i] -= executed;
+        return executed;
+    }
+
+    /**
+     * Setter for the state of a process
+     * @param i - the index of the process
+     * @param s - ProcessState
+     */
+    public void setState(int i, ProcessState s) {
+        this.state[i] = (byte) s.ordinal();
+    }
+
+    /**
+     * Setter for the waiting time of a process
+     * @param i - the index of the process
+     * @param waitingTime - the waiting time
+     */
+    void setWaitingTime(int i, long waitingTime) {
+        this.waitingTime[i] = waitingTime;
+    }
+
+    /**
+     * Returns the arrival time array itself, so an IndexHeap can be keyed on it.
+     * @return int[] - the arrival times, indexed by process
+     */
+    int[] arrivalTimes() {
+        return this.arrivalTime;
+    }
+
+    /**
+     * Returns the remaining CPU time array itself, so an IndexHeap can be keyed on it.
+     * @return int[] - the remaining CPU times, indexed by process
+     */
+    int[] cpuTimesRemaining() {
+        return this.cpuTimeRemaining;
+    }
+}
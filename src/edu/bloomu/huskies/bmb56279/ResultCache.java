@@ -0,0 +1,345 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of simulation results, so simulating a work load that has been simulated
+ * before returns the earlier results instead of running the simulation again. It is
+ * content-addressed: a result is filed under the SHA-256 hash of everything that
+ * determines it, which is every process's arrival time, burst lengths and priority,
+ * the type of scheduling, the engine, and every parameter in the SchedulerConfig. Two
+ * equal work loads built separately therefore share their results.
+ *
+ * The cache has two tiers:
+ *      - memory: a ConcurrentHashMap holding at most a given number of bytes of
+ *        results. When it holds more, the least recently used results are evicted until
+ *        it is down to three quarters of that, so the cost of finding them is spread over
+ *        many puts. Recency is tracked with a stamp from a shared counter rather than by
+ *        reordering a list, so a hit only writes one field and readers never lock.
+ *      - disk (optional): every result is also written to a directory, in the
+ *        BinaryFormat result form, in a file named after its hash. A result evicted
+ *        from memory, or cached by an earlier run of the program, is read back from
+ *        there. A file that can't be read is treated as missing.
+ *
+ * Any number of threads can use a cache at once. Two threads that miss on the same key
+ * at the same time may both simulate it; the results are the same, so either is kept.
+ * Cached results are shared, so their timelines are made read-only when they are
+ * cached.
+ *
+ * @author Brett Bernardi
+ */
+public class ResultCache {
+    // the file name extension of results on disk
+    private static final String EXTENSION = ".result";
+    // rough number of bytes a result takes besides its segments and processes
+    private static final long ENTRY_OVERHEAD = 256;
+    // the fraction of maxBytes an eviction brings the memory tier down to
+    private static final double LOW_WATER_MARK = 0.75;
+
+    // the most bytes of results the memory tier holds, and what an eviction leaves
+    private final long maxBytes;
+    private final long lowWaterBytes;
+    // the directory of the disk tier, or null if there is none
+    private final Path directory;
+    private final Map<String, Entry> entries;
+    // the estimated bytes of the results in memory
+    private final AtomicLong bytes;
+    // a counter that stamps every access, so the oldest stamp is least recently used
+    private final AtomicLong clock;
+    private final LongAdder memoryHits;
+    private final LongAdder diskHits;
+    private final LongAdder misses;
+
+    /**
+     * Constructor for a cache that only keeps results in memory.
+     * @param maxBytes - the most bytes of results to keep in memory
+     */
+    public ResultCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Constructor for a cache that keeps results in memory and in a directory.
+     * @param maxBytes - the most bytes of results to keep in memory
+     * @param directory - the directory to keep results in, which must exist, or null
+     * to only keep them in memory
+     */
+    public ResultCache(long maxBytes, Path directory) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The size of a cache can't be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.lowWaterBytes = (long) (maxBytes * LOW_WATER_MARK);
+        this.directory = directory;
+        this.entries = new ConcurrentHashMap<>();
+        this.bytes = new AtomicLong();
+        this.clock = new AtomicLong();
+        this.memoryHits = new LongAdder();
+        this.diskHits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Returns the results of simulating a work load, from the cache if they are in it,
+     * or by simulating it and caching the results if they are not.
+     * @param workLoad - the work load to simulate
+     * @param type - the type of scheduling
+     * @param engine - the engine to simulate with
+     * @param config - the tunable parameters of the Scheduler
+     * @return SimulationResult - the results of the simulation
+     * @throws IOException - thrown if the result can't be written to the disk tier
+     */
+    public SimulationResult simulate(Workload workLoad, SchedulingType type,
+                                     SimulationEngine engine, SchedulerConfig config)
+            throws IOException {
+        String key = keyOf(workLoad, type, engine, config);
+        SimulationResult result = get(key);
+        if (result != null) {
+            return result;
+        }
+        this.misses.increment();
+        Scheduler scheduler = new Scheduler(workLoad, type, engine, config);
+        scheduler.simulate();
+        result = scheduler.getResult();
+        put(key, result);
+        if (this.directory != null) {
+            write(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached results of a simulation, without simulating anything.
+     * @param key - the key of the results, from keyOf()
+     * @return SimulationResult - the cached results, or null if they are not cached
+     * @throws IOException - thrown if the disk tier can't be read
+     */
+    public SimulationResult get(String key) throws IOException {
+        Entry entry = this.entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = this.clock.incrementAndGet();
+            this.memoryHits.increment();
+            return entry.result;
+        }
+        if (this.directory != null) {
+            SimulationResult result = read(key);
+            if (result != null) {
+                this.diskHits.increment();
+                put(key, result);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key a simulation's results are cached under: the hex SHA-256 hash of
+     * the work load, the type of scheduling, the engine and the config.
+     * @param workLoad - the work load
+     * @param type - the type of scheduling
+     * @param engine - the engine
+     * @param config - the tunable parameters of the Scheduler
+     * @return String - the key, 64 hex digits
+     */
+    public static String keyOf(Workload workLoad, SchedulingType type,
+                               SimulationEngine engine, SchedulerConfig config) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to have SHA-256
+            throw new AssertionError(e);
+        }
+        ByteBuffer buffer = BinaryFormat.newBuffer();
+        buffer.putInt(BinaryFormat.VERSION).putInt(type.ordinal())
+                .putInt(engine.ordinal());
+        config.putParameters(buffer);
+        buffer.putInt(workLoad.size());
+        for (int i = 0; i < workLoad.size(); i++) {
+            putInt(digest, buffer, workLoad.getArrivalTime(i));
+            if (workLoad.hasIO()) {
+                // the number of bursts keeps the processes apart
+                int[] bursts = workLoad.getBursts(i);
+                putInt(digest, buffer, bursts.length);
+                for (int burst : bursts) {
+                    putInt(digest, buffer, burst);
+                }
+            } else {
+                putInt(digest, buffer, 1);
+                putInt(digest, buffer, workLoad.getBurstLength(i));
+            }
+            putInt(digest, buffer, workLoad.getPriority(i));
+        }
+        digest.update(buffer.array(), 0, buffer.position());
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Getter for the number of lookups answered from memory
+     * @return long - the number of memory hits
+     */
+    public long getMemoryHits() {
+        return this.memoryHits.sum();
+    }
+
+    /**
+     * Getter for the number of lookups answered from the disk tier
+     * @return long - the number of disk hits
+     */
+    public long getDiskHits() {
+        return this.diskHits.sum();
+    }
+
+    /**
+     * Getter for the number of simulations that had to be run
+     * @return long - the number of misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Getter for the estimated number of bytes of results in memory
+     * @return long - the bytes in memory
+     */
+    public long getBytes() {
+        return this.bytes.get();
+    }
+
+    /**
+     * Getter for the number of results in memory
+     * @return int - the number of results in memory
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    // Puts an int in the buffer, first adding the buffer to the digest if it is full.
+    private static void putInt(MessageDigest digest, ByteBuffer buffer, int value) {
+        if (buffer.remaining() < Integer.BYTES) {
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        buffer.putInt(value);
+    }
+
+    // Adds a result to the memory tier, evicting the least recently used results if
+    // it grows too big. Its timeline is made read-only first, since it will be shared.
+    private void put(String key, SimulationResult result) {
+        result.getTimeline().freeze();
+        Entry entry = new Entry(result, this.clock.incrementAndGet());
+        if (this.entries.putIfAbsent(key, entry) == null) {
+            if (this.bytes.addAndGet(entry.bytes) > this.maxBytes) {
+                evict();
+            }
+        }
+    }
+
+    // Evicts the entries with the oldest access stamps until the memory tier is down to
+    // the low water mark, so the sort isn't repeated on every put once the tier is
+    // full. The stamps are copied before sorting, and can change afterwards, so the
+    // order is only approximately the least recently used one. Only one thread evicts
+    // at a time.
+    private synchronized void evict() {
+        if (this.bytes.get() <= this.maxBytes) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        List<Entry> values = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : this.entries.entrySet()) {
+            keys.add(e.getKey());
+            values.add(e.getValue());
+        }
+        long[] stamps = new long[values.size()];
+        Integer[] byAge = new Integer[values.size()];
+        for (int i = 0; i < stamps.length; i++) {
+            stamps[i] = values.get(i).lastAccess;
+            byAge[i] = i;
+        }
+        Arrays.sort(byAge, Comparator.comparingLong(i -> stamps[i]));
+        for (int i : byAge) {
+            if (this.bytes.get() <= this.lowWaterBytes) {
+                break;
+            }
+            Entry entry = values.get(i);
+            if (this.entries.remove(keys.get(i), entry)) {
+                this.bytes.addAndGet(-entry.bytes);
+            }
+        }
+    }
+
+    // Reads a result from the disk tier, or returns null if it isn't there or can't be
+    // read.
+    private SimulationResult read(String key) throws IOException {
+        try (FileChannel channel = FileChannel.open(fileOf(key),
+                StandardOpenOption.READ)) {
+            return BinaryFormat.readResult(channel);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (EOFException | ImproperArguments e) {
+            // a truncated, corrupt or outdated file is simply simulated again and
+            // replaced
+            return null;
+        }
+    }
+
+    // Writes a result to the disk tier. It is written to a temporary file first and
+    // then moved into place, so a reader never sees a partly written result.
+    private void write(String key, SimulationResult result) throws IOException {
+        Path file = fileOf(key);
+        Path temporary = Files.createTempFile(this.directory, key, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.WRITE)) {
+                BinaryFormat.writeResult(channel, result);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // The file a result is kept in on disk.
+    private Path fileOf(String key) {
+        return this.directory.resolve(key + EXTENSION);
+    }
+
+    // A result in the memory tier, with its size and the stamp of its last access.
+    private static final class Entry {
+        private final SimulationResult result;
+        private final long bytes;
+        private volatile long lastAccess;
+
+        Entry(SimulationResult result, long lastAccess) {
+            this.result = result;
+            long segments = result.getTimeline().size();
+            this.bytes = ENTRY_OVERHEAD + segments * BinaryFormat.SEGMENT_RECORD_SIZE
+                    + (long) result.size() * BinaryFormat.PROCESS_RECORD_SIZE;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -1,19 +1,23 @@
 package edu.bloomu.huskies.bmb56279;
 
-import java.util.Comparator;
-
 /**
  * A class that implements the Comparator interface that will then be used by a
  * priority queue to simulate the ready queue using the Shortest Job First cpu
  * scheduling algorithm. A priority list that is passed an instance of this class will be
  * sorted according to the cpu remaining time. The process with the smallest CPU
  * remaining time will always be the head of a priority list using this Comparator.
+ * Processes with the same CPU time remaining are ordered by arrival time, then by
+ * process ID.
+ *
+ * The CPU time remaining of a process must not change while it is in the priority
+ * queue, or the heap would be out of order. The schedulers only execute a process
+ * that has been taken off the ready queue.
  *
  * @author Brett Bernardi
  */
-class SJFComparator implements Comparator<Process> {
+class SJFComparator extends ProcessComparator {
     @Override
-    public int compare(Process p1, Process p2) {
-        return p1.getCPUTime() - p2.getCPUTime();
+    long primaryKey(Process p) {
+        return p.getCPUTime();
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package edu.bloomu.huskies.bmb56279;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.PriorityQueue;
 
 /**
@@ -8,21 +11,36 @@ import java.util.PriorityQueue;
  * schedules processes waiting on the ready queue for execution according to a set of
  * rules. This scheduler will take a work load in its constructor, and store the work
  * load in a list. It will then have methods to schedule the processes in the workload
- * and simulate their execution according to three different scheduling algorithms:
+ * and simulate their execution according to eight different scheduling algorithms:
  *          1.) First Come, First Serve
  *          2.) Shortest Job First (Non-Preemptive)
  *          3.) Shortest Job First (Preemptive) a.k.a Shortest Remaining Time First
+ *          4.) Round Robin
+ *          5.) Multilevel Feedback Queue
+ *          6.) Priority (Non-Preemptive), with aging
+ *          7.) Priority (Preemptive), with aging
+ *          8.) Completely Fair Scheduler
  *
  * After the appropriate instance method is called upon the workload to simulate
  * scheduling and execution, methods from this class to calculate and retrieve the
- * execution schedule and get the average waiting time are available.
+ * execution schedule and get the average waiting time are available, along with
+ * histograms of the waiting, turnaround and response times for their percentiles, which
+ * are recorded as each process terminates. The schedule is recorded as a run-length
+ * encoded Timeline, so its size depends on the number of context switches rather than
+ * on the total execution time.
  *
- * Pre-conditions: Assume each process only has one CPU burst of a known length. Assume
- * we are using a single core CPU. Assume that no processes will be changed to the
- * waiting state (waiting for I/O as an example). Assume there is no dispatch
- * latency and context switches are instantaneous. Also, assume no processes are sharing
- * any data kernel data, thus we won't have to worry about race conditions in preemptive
- * scheduling algorithms.
+ * Pre-conditions: Assume each CPU and I/O burst of a process has a known length. Assume
+ * we are using a single core CPU. A process that finishes a CPU burst but still has I/O
+ * to do is changed to the waiting state and put on a TimerWheel until its I/O
+ * completes, at which point it goes back onto the ready queue; the wheel finds the
+ * processes to wake up without scanning every blocked process. By default, assume there
+ * is no dispatch latency and context switches are instantaneous; a fixed cost per
+ * context switch can be set in the SchedulerConfig, in which case the number of
+ * switches, the time lost to them and the effective CPU utilization are reported. A
+ * switch is never interrupted: a process that becomes ready during one competes for the
+ * lock once it is over, as it does in the MultiCoreScheduler. Also, assume no processes
+ * are sharing any data kernel data, thus we won't have to worry about race conditions
+ * in preemptive scheduling algorithms.
  *
  *
  * In this implementation, I decided to create a custom MyLock object that acts as a
@@ -43,10 +61,8 @@ import java.util.PriorityQueue;
  *
  * 2.) When a process terminates
  *
- *  are referred to as Non-Preemptive scheduling. Because of the simplified
- *  implementation of our scheduler, there are no processes that will enter the waiting
- *  state. Thus, for Non-Preemptive scheduling, decisions about scheduling are
- *  made when a process terminates.
+ *  are referred to as Non-Preemptive scheduling. Thus, for Non-Preemptive scheduling,
+ *  decisions about scheduling are made when a process terminates or blocks for I/O.
  *
  *
  *  CPU-scheduling decisions that take place under the following circumstances:
@@ -59,16 +75,26 @@ import java.util.PriorityQueue;
  *
  *  3.) When a new process enters the ready state
  *
- *  are referred to as Preemptive scheduling. In our simplified example of the this
- *  Scheduler class, no processes will enter the waiting state or wait for I/O. Thus,
- *  for preemptive scheduling, scheduling decisions are made only when a new process is
- *  added to the ready queue and changes to the ready state. This means that a process
+ *  are referred to as Preemptive scheduling. In this Scheduler class, interrupts are
+ *  not modeled. Thus, for preemptive scheduling, scheduling decisions are made when a
+ *  new process arrives or a blocked process finishes its I/O, and either one is added
+ *  to the ready queue and changes to the ready state. This means that a process
  *  may be preempted by another process of a higher priority, even if it is not
  *  finished executing and it still has some CPU time remaining.
  *
+ *  The simulation can be run by one of two engines (see SimulationEngine). The tick
+ *  engine advances the clock one unit of time per loop iteration, so its cost grows
+ *  with the total length of all CPU bursts. The event-driven engine jumps the clock
+ *  straight from one scheduling event to the next: an arrival, an I/O completion, the
+ *  end of a CPU burst, or (for preemptive scheduling) the arrival or I/O completion
+ *  that may preempt the running process. Nothing
+ *  can change the scheduling decision between two such events, so both engines
+ *  produce the same schedule and waiting times, but the event-driven engine only
+ *  does O(log n) work per event, or O(N log N) for a work load of N processes.
+ *
  * @author Brett Bernardi
  */
-public class Scheduler {
+public class Scheduler implements LatencyMetrics {
     // A priority queue is implemented as a binary heap, and thus, it is sorted in
     // the sense that the "head" is always the least, but the entire list cannot be
     // guaranteed to be "in order" at any given time.
@@ -76,16 +102,54 @@ public class Scheduler {
     // state
     private PriorityQueue<Process> readyQueue;
     // the sum of all processes' CPU burst length
-    int totalExecutionTime;
+    long totalExecutionTime;
     // number of processes in a work load
     int numProcesses;
     // A list that holds all the processes in this work load
     // Does not change throughout the simulation
     private final ArrayList<Process> jobQueue;
+    // All processes in the work load sorted by arrival time, and the index of the next
+    // process in it that has yet to arrive. Lets each loop add arrivals to the ready
+    // queue without scanning the whole job queue.
+    private final Process[] arrivalOrder;
+    private int nextArrival;
+    // number of processes that are not yet in the terminated state
+    private int processesLeft;
+    // the processes that are blocked on I/O, in the waiting state
+    private final TimerWheel blocked;
     // The schedule of Processes to be executed.
-    private char[] schedule;
+    private final Timeline timeline;
     // The type of algorithm to be used to schedule this work load
     private final SchedulingType type;
+    // The engine used to advance the clock during the simulation
+    private final SimulationEngine engine;
+    // The tunable parameters of the scheduling algorithms
+    private final SchedulerConfig config;
+    // The process that last held the lock on the CPU, the number of times the lock
+    // has gone to a different process, and the total time spent switching
+    private Process lastOwner;
+    private long contextSwitches;
+    private long switchTime;
+    // the process put back on the ready queue in the middle of its CPU burst since the
+    // last dispatch, or null if the lock was released some other way
+    private Process requeued;
+    // the time the last process terminated
+    private long endTime;
+    // instrumentation counters, or null if instrumentation is disabled
+    private SimulationStats stats;
+    // the waiting, turnaround and response time of every process that has
+    // terminated, recorded as it terminates
+    private final LatencyHistogram waitingTimes;
+    private final LatencyHistogram turnaroundTimes;
+    private final LatencyHistogram responseTimes;
+    // The ready queue for Round Robin, and the levels of the ready queue for MLFQ
+    // (level 0 is the top). These replace the priority queue for those algorithms.
+    private ProcessRing roundRobinQueue;
+    private ProcessRing[] feedbackQueues;
+    // The ready queue for the priority algorithms, which ages its processes
+    private PriorityBuckets priorityQueue;
+    // The run queue for CFS, ordered by virtual runtime
+    private FairRunQueue fairQueue;
 
     /**
      * Constructor for the Scheduler class that takes in a work load of processes
@@ -98,36 +162,89 @@ public class Scheduler {
      * @throws ImproperArguments - thrown if arguments are invalid
      */
     public Scheduler(String[] workLoad, SchedulingType type) throws ImproperArguments {
+        this(workLoad, type, SimulationEngine.TICK);
+    }
+
+    /**
+     * Constructor for the Scheduler class that also specifies which engine will
+     * advance the clock during the simulation. See the constructor above for the
+     * format of the work load, and Workload.parse() for how it is validated.
+     * @param workLoad - a String[] array of user input
+     * @param type - type of scheduling(enum) specified
+     * @param engine - the engine(enum) used to run the simulation
+     * @throws ImproperArguments - thrown if arguments are invalid
+     */
+    public Scheduler(String[] workLoad, SchedulingType type, SimulationEngine engine)
+            throws ImproperArguments {
+        this(Workload.parse(workLoad), type, engine);
+    }
+
+    /**
+     * Constructor for the Scheduler class that takes in a work load that has already
+     * been parsed. The Workload is never changed, so the same one can be shared by
+     * many Scheduler objects; each creates its own Process objects from it.
+     * @param workLoad - the work load to schedule
+     * @param type - type of scheduling(enum) specified
+     * @param engine - the engine(enum) used to run the simulation
+     */
+    public Scheduler(Workload workLoad, SchedulingType type, SimulationEngine engine) {
+        this(workLoad, type, engine, new SchedulerConfig());
+    }
+
+    /**
+     * Constructor for the Scheduler class that also takes the tunable parameters of
+     * the scheduling algorithms, such as the Round Robin time quantum.
+     * @param workLoad - the work load to schedule
+     * @param type - type of scheduling(enum) specified
+     * @param engine - the engine(enum) used to run the simulation
+     * @param config - the tunable parameters of the scheduling algorithms
+     */
+    public Scheduler(Workload workLoad, SchedulingType type, SimulationEngine engine,
+                     SchedulerConfig config) {
         this.type = type;
-        char tempPID = 'A';
+        this.engine = engine;
+        this.config = config;
         this.numProcesses = 0;
         this.totalExecutionTime = 0;
         this.jobQueue = new ArrayList<>();
-        // convert array of user input into an ArrayList of Process objects
-        if (workLoad.length % 2 == 0) {
-            for (int i = 0; i < workLoad.length - 1; i += 2) {
-                Process process = new Process(tempPID, Integer.parseInt(workLoad[i]),
-                        Integer.parseInt(workLoad[i + 1]));
-                process.setState(ProcessState.NEW);
-                jobQueue.add(process);
-                tempPID++;
-                this.numProcesses++;
-                this.totalExecutionTime += process.getCPUTime();
-            }
-
-        }
-        else {
-            throw new ImproperArguments("Every Process needs an arrival time and a CPU " +
-                    "burst length!. Try again!");
+        // convert the work load into an ArrayList of Process objects
+        for (int i = 0; i < workLoad.size(); i++) {
+            Process process = new Process(i, workLoad.getArrivalTime(i),
+                    workLoad.getBursts(i), workLoad.getPriority(i));
+            process.setState(ProcessState.NEW);
+            jobQueue.add(process);
+            this.numProcesses++;
+            this.totalExecutionTime += process.getTotalCPUTime();
         }
 
-        this.schedule = new char[this.totalExecutionTime];
+        // Sort a copy of the job queue by arrival time. The sort is stable, so processes
+        // that arrive at the same time keep the order they were given in.
+        this.arrivalOrder = jobQueue.toArray(new Process[0]);
+        Arrays.sort(this.arrivalOrder, new FCFSComparator());
+        this.nextArrival = 0;
+        this.processesLeft = this.numProcesses;
+        this.blocked = new TimerWheel();
+        this.waitingTimes = new LatencyHistogram();
+        this.turnaroundTimes = new LatencyHistogram();
+        this.responseTimes = new LatencyHistogram();
+
+        this.timeline = new Timeline();
         // enhanced switch statement that will pass the appropriate Comparator to the
         // constructor of the the newly created readyQueue, depending on the specified
         // type.
         switch(this.type) {
             case FCFS -> this.readyQueue = new PriorityQueue<>(new FCFSComparator());
             case SRTF, SJFNP -> this.readyQueue = new PriorityQueue<>(new SJFComparator());
+            case RR -> this.roundRobinQueue = new ProcessRing();
+            case PRIORITY_NP, PRIORITY_P -> this.priorityQueue = new PriorityBuckets();
+            case CFS -> this.fairQueue = new FairRunQueue(config.getTargetLatency(),
+                    config.getMinGranularity());
+            case MLFQ -> {
+                this.feedbackQueues = new ProcessRing[config.getFeedbackLevels()];
+                for (int i = 0; i < this.feedbackQueues.length; i++) {
+                    this.feedbackQueues[i] = new ProcessRing();
+                }
+            }
         }
     }
 
@@ -150,22 +267,16 @@ public class Scheduler {
      */
     private void nonPreemptiveScheduleAndExecute() {
         // the unit of time. Each loop will take one unit of time
-        int time = 0;
-        int scheduleIndex = 0;
+        long time = 0;
         // The lock on the CPU
         MyLock lock = new MyLock();
 
         // loop will break out only when all processes are finished executing (in other
         // words, all processes will be in the terminated state).
-        while(!allProcessesTerminated()) {
+        while(this.processesLeft > 0) {
             // check for any processes whose arrival times are now. Set state to ready,
             // and then add the process to the ready queue
-            for(Process p: jobQueue) {
-                if(p.getArrivalTime() == time && p.getState() == ProcessState.NEW) {
-                    p.setState(ProcessState.READY);
-                    readyQueue.add(p);
-                }
-            }
+            admitArrivals(time);
 
             // If no process is currently in possession of the lock on the CPU and
             // there is a ready process on the ready queue, make your scheduling
@@ -178,110 +289,497 @@ public class Scheduler {
             if (!lock.isLocked() && !readyQueue.isEmpty()) {
                 // get the head process according to FCFS
                 Process headProcess = readyQueue.poll();
-                // set state
-                headProcess.setState(ProcessState.RUNNING);
+                // set state, and stop the clock on its waiting time
+                headProcess.dispatch(time);
                 // obtain the lock on the CPU
+                switchTo(headProcess, time);
                 lock.lock(headProcess);
             }
 
             if(lock.isLocked()) {
                 // whichever process has the lock, execute for one unit of time
                 lock.getProcess().execute();
-                // update schedule and schedule index
-                this.schedule[scheduleIndex++] = lock.getProcess().getID();
-                // all other processes in the ready queue are waiting
-                for (Process p : readyQueue) {
-                    p.incrementWaitingTime();
-                }
+                // update schedule
+                this.timeline.append(lock.getProcess().getID(), time, 1);
 
-                // check if current process that owns the lock is finished executing.
+                // check if current process that owns the lock is finished with its
+                // CPU burst.
                 if (lock.getProcess().getCPUTime() == 0) {
-                    // set state to terminated
-                    lock.getProcess().setState(ProcessState.TERMINATED);
+                    // terminate or block it at the end of this unit of time
+                    endBurst(lock.getProcess(), time + 1);
                     // release the lock for the next available process
                     lock.unlock();
                 }
+            } else if (this.stats != null) {
+                this.stats.idle(1);
             }
 
             // increment time counter for next iteration
             time++;
         }
+        this.endTime = time;
+        if (this.stats != null) {
+            this.stats.sample(time, 0);
+        }
     }
 
     /**
      * Preemptively schedules and executes the workload using a priority queue. The
      * type of priority queue is specified in the constructor of this class, by passing
-     * a Comparator. In preemptive scheduling, no single process gets the lock on the
-     * CPU for any amount of time longer than one unit of time. This means that a
-     * currently executing process may be preempted by another process of a higher
-     * priority, even before that process is finished executing. In this example,
-     * Preeemptive SJF is the algorithm that uses this method, but other
-     * preemptive priority based algorithms can also use this in the future (with the
-     * appropriate Comparator).
+     * a Comparator. In preemptive scheduling, a currently executing process may be
+     * preempted by another process of a higher priority, even before that process is
+     * finished executing. In this example, Preeemptive SJF is the algorithm that uses
+     * this method, but other preemptive priority based algorithms can also use this in
+     * the future (with the appropriate Comparator).
+     *
+     * The process holding the lock stays off the ready queue while it executes, so its
+     * remaining CPU time never changes while it is in the heap. A preemption is only
+     * possible when another process becomes ready, so only then does the running
+     * process go back onto the ready queue, before the new arrivals, to compete with
+     * them for the lock. On every other unit of time the ready queue isn't touched.
+     * This makes the same sequence of ready queue operations as the event-driven
+     * method.
      */
     private void preemptiveScheduleAndExecute() {
         // each cycle of the loop take one unit of time
-        int time = 0;
-        // index for the schedule array
-        int scheduleIndex = 0;
+        long time = 0;
         MyLock lock = new MyLock();
 
         // loop breaks out when all processes are in the terminated state
-        while(!allProcessesTerminated()) {
+        while(this.processesLeft > 0) {
 
-            // Add process to ready queue at the appropriate time
-            for(Process p: jobQueue) {
-                if(p.getArrivalTime() == time && p.getState() == ProcessState.NEW) {
-                    p.setState(ProcessState.READY);
-                    readyQueue.add(p);
-                }
+            // If a process becomes ready now, the running process may be preempted:
+            // it goes back onto the ready queue, ready since the end of the last unit
+            // of time, and competes with the new process for the lock.
+            if (lock.isLocked() && nextReadyTime() <= time) {
+                requeue(lock, time);
             }
+            // Add process to ready queue at the appropriate time
+            admitArrivals(time);
             // Preemptive scheduling schedules processes when processes change state
-            // from new to ready
-            // First check if ready queue is not empty, and try to preempt the process
-            // that currently has the lock.
-            if(!readyQueue.isEmpty()) {
+            // from new to ready, so give the lock to the head of the ready queue if
+            // no process has it.
+            if(!lock.isLocked() && !readyQueue.isEmpty()) {
                 lock.lock(readyQueue.poll());
+                lock.getProcess().dispatch(time);
+                switchTo(lock.getProcess(), time);
             }
             // A process should have a lock at this point. It only won't if there are
             // no processes ready, which in that case it will
             if(lock.isLocked()) {
                 lock.getProcess().execute();
-                lock.getProcess().setState(ProcessState.RUNNING);
-                this.schedule[scheduleIndex++] = lock.getProcess().getID();
+                this.timeline.append(lock.getProcess().getID(), time, 1);
 
-                // all other processes in the ready queue are waiting
-                for (Process p : readyQueue) {
-                    p.incrementWaitingTime();
+                // If process is finished with its CPU burst, it terminates or blocks
+                // and releases the lock. Otherwise it keeps the lock.
+                if(lock.getProcess().getCPUTime() == 0) {
+                    endBurst(lock.getProcess(), time + 1);
+                    lock.unlock();
                 }
-                // Put the process back onto the ready queue if it is not finished
-                // executing.
-                if(lock.getProcess().getCPUTime() != 0) {
-                    lock.getProcess().setState(ProcessState.READY);
-                    readyQueue.add(lock.getProcess());
+
+            } else if (this.stats != null) {
+                this.stats.idle(1);
+            }
+            // increment time counter
+            time++;
+
+
+        }
+        this.endTime = time;
+        if (this.stats != null) {
+            this.stats.sample(time, 0);
+        }
+    }
+
+    /**
+     * Schedules and executes the workload by jumping the clock from one scheduling
+     * event to the next, instead of advancing it one unit of time per iteration. It
+     * makes exactly the same sequence of ready queue operations as the tick methods
+     * above, so it produces the same schedule and waiting times.
+     *
+     * Between two events the process holding the lock simply keeps executing. For
+     * non-preemptive scheduling it keeps the lock until it terminates. For preemptive
+     * scheduling the only thing that can take the lock away is a new arrival, so the
+     * process executes until it terminates or until the next arrival time, whichever
+     * comes first, and then goes back onto the ready queue to compete with the new
+     * arrival exactly as it would have in the tick method.
+     *
+     * @param preemptive - true if the running process may be preempted by an arrival
+     */
+    private void eventDrivenScheduleAndExecute(boolean preemptive) {
+        long time = 0;
+        MyLock lock = new MyLock();
+
+        while (this.processesLeft > 0) {
+            // A preempted process goes back onto the ready queue before any new
+            // arrivals are added, just like at the end of a tick.
+            if (preemptive && lock.isLocked()) {
+                requeue(lock, time);
+            }
+            // Add every process that has arrived by now to the ready queue
+            admitArrivals(time);
+            if (!lock.isLocked()) {
+                // Nothing to run, so the CPU is idle until the next process is ready
+                if (readyQueue.isEmpty()) {
+                    time = idleUntilNextReady(time);
+                    continue;
                 }
-                // If process is finished executing, set state to Terminated.
-                else {
-                    lock.getProcess().setState(ProcessState.TERMINATED);
+                Process headProcess = readyQueue.poll();
+                headProcess.dispatch(time);
+                time = switchTo(headProcess, time);
+                lock.lock(headProcess);
+            }
+
+            // Execute until the next event: the end of the CPU burst, or a possible
+            // preemption. If a process became ready during a context switch, execute
+            // nothing and let it compete for the lock right away.
+            Process running = lock.getProcess();
+            int runFor = running.getCPUTime();
+            if (preemptive) {
+                runFor = (int) Math.max(0, Math.min(runFor, nextReadyTime() - time));
+            }
+            running.execute(runFor);
+            this.timeline.append(running.getID(), time, runFor);
+            time += runFor;
+
+            if (running.getCPUTime() == 0) {
+                endBurst(running, time);
+                lock.unlock();
+            }
+        }
+        this.endTime = time;
+        if (this.stats != null) {
+            this.stats.sample(time, 0);
+        }
+    }
+
+    /**
+     * Schedules and executes the workload using Round Robin. The ready queue is a
+     * first-in, first-out ProcessRing. The process at the front of the queue is given
+     * the lock for at most one time quantum. If it has not finished by then, it is
+     * preempted and goes to the back of the queue, behind any processes that arrived
+     * or finished their I/O while it was executing. Both queue operations are O(1).
+     *
+     * The clock steps from one time slice to the next, since nothing can change the
+     * scheduling decision in the middle of a slice.
+     */
+    private void roundRobinScheduleAndExecute() {
+        long time = 0;
+        MyLock lock = new MyLock();
+
+        while (this.processesLeft > 0) {
+            // Processes that became ready during the last slice get in line before
+            // the preempted process
+            admitArrivals(time);
+            if (lock.isLocked()) {
+                requeue(lock, time);
+            }
+            // Nothing to run, so the CPU is idle until the next process is ready
+            if (this.roundRobinQueue.isEmpty()) {
+                time = idleUntilNextReady(time);
+                continue;
+            }
+            Process running = this.roundRobinQueue.pollFirst();
+            running.dispatch(time);
+            time = switchTo(running, time);
+            lock.lock(running);
+
+            int runFor = running.execute(this.config.getTimeQuantum());
+            this.timeline.append(running.getID(), time, runFor);
+            time += runFor;
+            if (running.getCPUTime() == 0) {
+                endBurst(running, time);
+                lock.unlock();
+            }
+        }
+        this.endTime = time;
+        if (this.stats != null) {
+            this.stats.sample(time, 0);
+        }
+    }
+
+    /**
+     * Schedules and executes the workload using a Multilevel Feedback Queue. Each level
+     * is a first-in, first-out ProcessRing, and each level's time quantum is twice the
+     * one of the level above it. New processes start on the top level. The lock always
+     * goes to the front process of the highest non-empty level, and:
+     *
+     *      - a process that uses up its whole quantum is demoted one level
+     *      - a process that blocks for I/O before its quantum is up keeps its level,
+     *        and goes to the back of it when its I/O completes
+     *      - a process on a lower level is preempted as soon as a new process arrives
+     *        (new processes always start on the top level) or a blocked process
+     *        finishes its I/O. It goes to the back of its own level and keeps it.
+     *      - every boost period, every process is moved back to the top level, so
+     *        long processes can't be starved by a steady stream of short ones. The
+     *        boost takes effect at the next scheduling decision.
+     *
+     * Finding the highest non-empty level looks at a fixed number of levels, so every
+     * scheduling decision is O(1).
+     */
+    private void feedbackScheduleAndExecute() {
+        long time = 0;
+        long boostPeriod = this.config.getBoostPeriod();
+        long nextBoost = boostPeriod > 0 ? boostPeriod : Long.MAX_VALUE;
+        int lowestLevel = this.feedbackQueues.length - 1;
+        MyLock lock = new MyLock();
+
+        while (this.processesLeft > 0) {
+            admitArrivals(time);
+            if (time >= nextBoost) {
+                // Move every level, in order, to the back of the top level
+                for (int level = 1; level <= lowestLevel; level++) {
+                    this.feedbackQueues[level].drainTo(this.feedbackQueues[0]);
+                }
+                if (lock.isLocked()) {
+                    lock.getProcess().setQueueLevel(0);
                 }
-                // release lock
+                while (nextBoost <= time) {
+                    nextBoost += boostPeriod;
+                }
+            }
+            if (lock.isLocked()) {
+                // the process was demoted or preempted; its level is already set
+                requeue(lock, time);
+            }
+
+            int level = 0;
+            while (level <= lowestLevel && this.feedbackQueues[level].isEmpty()) {
+                level++;
+            }
+            // Nothing to run, so the CPU is idle until the next process is ready
+            if (level > lowestLevel) {
+                time = idleUntilNextReady(time);
+                continue;
+            }
+            Process running = this.feedbackQueues[level].pollFirst();
+            running.dispatch(time);
+            time = switchTo(running, time);
+            lock.lock(running);
+
+            long quantum = this.config.getLevelQuantum(level);
+            long runFor = Math.min(quantum, running.getCPUTime());
+            // a process below the top level is preempted by the next process to
+            // become ready, even one that became ready during the context switch
+            if (level > 0) {
+                runFor = Math.max(0, Math.min(runFor, nextReadyTime() - time));
+            }
+            running.execute((int) runFor);
+            this.timeline.append(running.getID(), time, runFor);
+            time += runFor;
+            if (running.getCPUTime() == 0) {
+                endBurst(running, time);
                 lock.unlock();
+            } else if (runFor == quantum) {
+                running.setQueueLevel(Math.min(level + 1, lowestLevel));
+            }
+        }
+        this.endTime = time;
+        if (this.stats != null) {
+            this.stats.sample(time, 0);
+        }
+    }
 
+    /**
+     * Schedules and executes the workload by priority. The ready queue is a
+     * PriorityBuckets, which holds one first-in, first-out bucket per priority level,
+     * and the lock always goes to the front process of the most urgent bucket. Every
+     * aging interval, every waiting process becomes one level more urgent, so a process
+     * of low priority can't be starved forever by a steady stream of urgent ones. A
+     * process keeps the priority it has aged to until its CPU burst ends, and doesn't
+     * age while it holds the lock; its next CPU burst starts at its static priority.
+     *
+     * For preemptive scheduling, the running process is preempted as soon as a waiting
+     * process is strictly more urgent than the effective priority it was dispatched
+     * with, either because a more urgent process became ready or because a waiting
+     * process aged past it. It goes to the back of the bucket of that effective
+     * priority, so it doesn't have to age all over again. Equally urgent processes
+     * never preempt each other.
+     *
+     * The clock jumps from one event to the next: an arrival or I/O completion, the
+     * end of a CPU burst, or (for preemptive scheduling) the aging interval at which
+     * the most urgent waiting process would overtake the running one. Every scheduling
+     * decision is O(1), whatever the number of ready processes.
+     *
+     * @param preemptive - true if the running process may be preempted
+     */
+    private void priorityScheduleAndExecute(boolean preemptive) {
+        long time = 0;
+        long agingInterval = this.config.getAgingInterval();
+        MyLock lock = new MyLock();
+
+        while (this.processesLeft > 0) {
+            // Admit the processes that became ready since the last loop in order of
+            // time, aging the queue to each one's epoch first, so each enters the
+            // queue in the epoch it became ready in, not the one it was noticed in
+            long ready;
+            while ((ready = nextReadyTime()) <= time) {
+                if (agingInterval > 0) {
+                    this.priorityQueue.age(ready / agingInterval);
+                }
+                admitArrivals(ready);
+            }
+            if (agingInterval > 0) {
+                this.priorityQueue.age(time / agingInterval);
+            }
+            // Only a preemptive scheduler gets here with the lock still held
+            if (lock.isLocked() && this.priorityQueue.peekPriority()
+                    < lock.getProcess().getEffectivePriority()) {
+                requeue(lock, time);
+            }
+            if (!lock.isLocked()) {
+                // Nothing to run, so the CPU is idle until the next process is ready
+                if (this.priorityQueue.isEmpty()) {
+                    time = idleUntilNextReady(time);
+                    continue;
+                }
+                Process headProcess = this.priorityQueue.poll();
+                headProcess.dispatch(time);
+                time = switchTo(headProcess, time);
+                lock.lock(headProcess);
             }
-            // increment time counter
-            time++;
 
+            // Execute until the next event that could preempt the running process
+            Process running = lock.getProcess();
+            long runFor = running.getCPUTime();
+            if (preemptive) {
+                long next = nextReadyTime();
+                int waiting = this.priorityQueue.peekPriority();
+                if (agingInterval > 0 && waiting != Integer.MAX_VALUE
+                        && running.getEffectivePriority() > 0) {
+                    // the epoch in which the most urgent waiting process overtakes it
+                    long overtake = this.priorityQueue.getEpoch() + waiting
+                            - running.getEffectivePriority() + 1;
+                    next = Math.min(next, overtake * agingInterval);
+                }
+                // a context switch may have taken the clock past the next event already
+                runFor = Math.max(1, Math.min(runFor, next - time));
+            }
+            running.execute((int) runFor);
+            this.timeline.append(running.getID(), time, runFor);
+            time += runFor;
 
+            if (running.getCPUTime() == 0) {
+                endBurst(running, time);
+                lock.unlock();
+            }
+        }
+        this.endTime = time;
+        if (this.stats != null) {
+            this.stats.sample(time, 0);
+        }
+    }
+
+    /**
+     * Schedules and executes the workload with the Completely Fair Scheduler. The run
+     * queue is a FairRunQueue, a red-black tree of the ready processes ordered by
+     * virtual runtime, and the lock always goes to the leftmost process, the one
+     * furthest behind its fair share of the CPU. Picking it is O(log n), so the
+     * scheduler keeps up with run queues of any depth.
+     *
+     * The running process is charged for its CPU time as it runs, and keeps the lock
+     * until its CPU burst ends or it is preempted, which happens when:
+     *      - its time slice runs out and another process is ready. It goes back into
+     *        the tree, and runs again straight away if it is still the leftmost.
+     *      - a process becomes ready that is behind it by more than the minimum
+     *        granularity of virtual runtime
+     * A process's weight, and so its share of the CPU, comes from its priority, which
+     * is its nice level plus Process.DEFAULT_PRIORITY.
+     *
+     * The clock jumps from one event to the next: an arrival or I/O completion, the
+     * end of a CPU burst, or the end of a time slice.
+     */
+    private void fairScheduleAndExecute() {
+        long time = 0;
+        // the time the running process's time slice ends
+        long sliceEnd = 0;
+        MyLock lock = new MyLock();
+
+        while (this.processesLeft > 0) {
+            boolean woke = false;
+            if (nextReadyTime() <= time) {
+                admitArrivals(time);
+                woke = true;
+            }
+            // Only a process that is still in its CPU burst gets here with the lock
+            if (lock.isLocked()) {
+                Process running = lock.getProcess();
+                if (time >= sliceEnd && this.fairQueue.isEmpty()) {
+                    // nothing else to run, so it gets another slice
+                    sliceEnd = time + this.fairQueue.slice(running);
+                } else if (time >= sliceEnd
+                        || woke && this.fairQueue.shouldPreempt(running)) {
+                    requeue(lock, time);
+                }
+            }
+            if (!lock.isLocked()) {
+                // Nothing to run, so the CPU is idle until the next process is ready
+                if (this.fairQueue.isEmpty()) {
+                    time = idleUntilNextReady(time);
+                    continue;
+                }
+                Process headProcess = this.fairQueue.poll();
+                headProcess.dispatch(time);
+                time = switchTo(headProcess, time);
+                lock.lock(headProcess);
+                sliceEnd = time + this.fairQueue.slice(headProcess);
+            }
+
+            // Execute until the burst or the slice ends, or another process is ready
+            Process running = lock.getProcess();
+            long runFor = Math.min(running.getCPUTime(),
+                    Math.min(sliceEnd, nextReadyTime()) - time);
+            // a context switch may have taken the clock past the next event already
+            runFor = Math.max(1, runFor);
+            running.execute((int) runFor);
+            this.timeline.append(running.getID(), time, runFor);
+            this.fairQueue.charge(running, runFor);
+            time += runFor;
+
+            if (running.getCPUTime() == 0) {
+                endBurst(running, time);
+                lock.unlock();
+            }
+        }
+        this.endTime = time;
+        if (this.stats != null) {
+            this.stats.sample(time, 0);
         }
     }
 
     /**
      * A public method that will simulate the scheduling and execution of the workload
      * associated with this object. Will call the appropriate private simulate method,
-     * based on the supplied type of algorithm specified in the Constructor for this
-     * object.
+     * based on the supplied type of algorithm and engine specified in the Constructor
+     * for this object.
      */
     public void simulate() {
+        // Round Robin, MLFQ, priority scheduling and CFS always step from one
+        // scheduling decision to the next, whichever engine was chosen.
+        if (this.type == SchedulingType.RR) {
+            this.roundRobinScheduleAndExecute();
+            return;
+        }
+        if (this.type == SchedulingType.MLFQ) {
+            this.feedbackScheduleAndExecute();
+            return;
+        }
+        if (this.type == SchedulingType.PRIORITY_NP
+                || this.type == SchedulingType.PRIORITY_P) {
+            this.priorityScheduleAndExecute(this.type == SchedulingType.PRIORITY_P);
+            return;
+        }
+        if (this.type == SchedulingType.CFS) {
+            this.fairScheduleAndExecute();
+            return;
+        }
+        // The tick methods model instantaneous context switches, so a switch cost
+        // is always simulated by the event-driven engine.
+        if (this.engine == SimulationEngine.EVENT_DRIVEN
+                || this.config.getContextSwitchCost() > 0) {
+            this.eventDrivenScheduleAndExecute(this.type == SchedulingType.SRTF);
+            return;
+        }
         // enhanced switch statement
         // no fall-through behavior
         switch(this.type) {
@@ -291,45 +789,323 @@ public class Scheduler {
     }
 
     /**
-     * Will return the schedule of execution of each Process. The size of this char[]
-     * will be equal to the totalExecutionTime.
+     * Getter for the type of scheduling this object simulates
+     * @return SchedulingType - the type of scheduling
+     */
+    public SchedulingType getType() {
+        return this.type;
+    }
+
+    /**
+     * Turns on instrumentation: the simulation will update the given counters as it
+     * runs, so they can be watched from another thread. Instrumentation is off by
+     * default.
+     * @param stats - the counters to update, or null to turn instrumentation off
+     */
+    public void setStats(SimulationStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Getter for the instrumentation counters
+     * @return SimulationStats - the counters, or null if instrumentation is off
+     */
+    public SimulationStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * Getter for the number of context switches: the number of times the lock on the
+     * CPU was given to a different process than the one that held it last, including
+     * the first process to run.
+     * @return long - the number of context switches
+     */
+    public long getContextSwitches() {
+        return this.contextSwitches;
+    }
+
+    /**
+     * Getter for the total time lost to context switches
+     * @return long - the time spent switching
+     */
+    public long getSwitchTime() {
+        return this.switchTime;
+    }
+
+    /**
+     * Returns the effective CPU utilization: the fraction of the time from 0 until the
+     * last process terminated that was spent executing processes, rather than idle or
+     * switching between them.
+     * @return double - the CPU utilization, between 0 and 1
+     */
+    public double getCpuUtilization() {
+        return this.endTime == 0 ? 0
+                : (double) this.timeline.getTotalExecutionTime() / this.endTime;
+    }
+
+    /**
+     * Will return the schedule of execution of each Process as a run-length encoded
+     * Timeline of (process ID, start time, length) segments.
+     *
+     * @return Timeline - The schedule of execution
+     */
+    public Timeline getTimeline() {
+        return this.timeline;
+    }
+
+    /**
+     * Will return the schedule of execution of each Process, one char per unit of
+     * time. The size of this char[] will be equal to the totalExecutionTime, and a char
+     * can't tell apart more than about 65,000 processes, so it is only suitable for
+     * small work loads; use getTimeline() for large ones.
      *
      * @return char[] - The schedule of execution
      */
     public char[] getSchedule() {
-        return this.schedule;
+        return this.timeline.toCharArray();
+    }
+
+    /**
+     * Returns every process in the work load, in the order they were given, so their
+     * individual waiting, turnaround and response times can be retrieved after the
+     * simulation.
+     *
+     * @return List - an unmodifiable view of the job queue
+     */
+    public List<Process> getProcesses() {
+        return Collections.unmodifiableList(this.jobQueue);
+    }
+
+    /**
+     * Collects the schedule and the waiting, turnaround and response time of every
+     * process into a SimulationResult, which no longer depends on this object and can
+     * be saved with the BinaryFormat class.
+     *
+     * @return SimulationResult - the results of the simulation
+     */
+    public SimulationResult getResult() {
+        long[] waitingTimes = new long[this.numProcesses];
+        long[] turnaroundTimes = new long[this.numProcesses];
+        long[] responseTimes = new long[this.numProcesses];
+        for (int i = 0; i < this.numProcesses; i++) {
+            Process p = jobQueue.get(i);
+            waitingTimes[i] = p.getWaitingTime();
+            turnaroundTimes[i] = p.getTurnaroundTime();
+            responseTimes[i] = p.getResponseTime();
+        }
+        return new SimulationResult(this.type, this.timeline, waitingTimes,
+                turnaroundTimes, responseTimes);
     }
 
     /**
-     * Calculates and returns the average waiting time of each process in Work Load
-     * that was passed in the constructor, and is now stored in the ArrayList of all
-     * processes.
+     * Returns the average waiting time of each process in Work Load that was passed
+     * in the constructor, which is kept up to date as processes terminate.
      *
      * @return double - the Avg. Waiting Time.
      */
     public double getAvgWaitTime() {
-        double sum = 0;
-        for(Process p: jobQueue) {
-            sum += p.getWaitingTime();
+        return this.waitingTimes.getMean();
+    }
+
+    @Override
+    public LatencyHistogram getWaitingTimeHistogram() {
+        return this.waitingTimes;
+    }
+
+    @Override
+    public LatencyHistogram getTurnaroundTimeHistogram() {
+        return this.turnaroundTimes;
+    }
+
+    @Override
+    public LatencyHistogram getResponseTimeHistogram() {
+        return this.responseTimes;
+    }
+
+    /**
+     * Private helper method called whenever a process is given the lock on the CPU.
+     * If it is not the process that held the lock last, that is a context switch: it
+     * is counted, and if the configured context switch cost is not zero, that much
+     * time is spent switching before the process can start executing. The time is
+     * recorded on the timeline as a context switch segment. The process has already
+     * been dispatched, so the switch counts towards neither its waiting time nor its
+     * execution time.
+     *
+     * @param p - the process being given the lock
+     * @param time - the current time
+     * @return long - the time the process can start executing
+     */
+    private long switchTo(Process p, long time) {
+        if (this.stats != null) {
+            recordDispatch(p, time);
+        }
+        this.requeued = null;
+        if (p == this.lastOwner) {
+            return time;
         }
-        return (sum / this.numProcesses);
+        this.lastOwner = p;
+        this.contextSwitches++;
+        long cost = this.config.getContextSwitchCost();
+        this.timeline.append(Timeline.CONTEXT_SWITCH, time, cost);
+        this.switchTime += cost;
+        return time + cost;
     }
 
     /**
-     * Private helper method that goes through the job queue (the list of all processes
-     * in this work load) and will return true if all processes are finished executing
-     * and are in the terminated state. Return false otherwise
+     * Private helper method that moves every blocked process whose I/O has completed
+     * off the timer wheel, and then every process whose arrival time has been reached
+     * from the arrival order, onto the ready queue, and sets its state to ready.
+     * Because the arrival order is sorted, this only ever looks at the processes it
+     * admits plus one, so admission costs amortized O(1) per process rather than a
+     * scan of the whole job queue on every unit of time.
      *
-     * @return boolean - true if all processes in terminated state. False otherwise.
+     * @param time - the current time
      */
-    private boolean allProcessesTerminated() {
-        for(Process p: jobQueue) {
-            if(p.getState() != ProcessState.TERMINATED) {
-                return false;
+    private void admitArrivals(long time) {
+        Process woken;
+        while ((woken = this.blocked.poll(time)) != null) {
+            woken.enterReadyQueue(woken.getWakeTime());
+            makeReady(woken);
+        }
+        while (this.nextArrival < this.arrivalOrder.length
+                && this.arrivalOrder[this.nextArrival].getArrivalTime() <= time) {
+            Process p = this.arrivalOrder[this.nextArrival++];
+            p.enterReadyQueue(p.getArrivalTime());
+            if (this.stats != null) {
+                this.stats.admitted();
             }
+            // every new process starts on the top level of a feedback queue
+            p.setQueueLevel(0);
+            makeReady(p);
         }
-        return true;
     }
 
-}
+    /**
+     * Private helper method that puts the process holding the lock back on the ready
+     * queue, in the middle of its CPU burst, and releases the lock. If a different
+     * process is given the lock next, the process was preempted; if it is given the
+     * lock again, as when it is still the shortest job or alone at the end of its time
+     * slice, it was not.
+     *
+     * @param lock - the lock on the CPU, held by the running process
+     * @param time - the current time
+     */
+    private void requeue(MyLock lock, long time) {
+        Process running = lock.getProcess();
+        running.enterReadyQueue(time);
+        makeReady(running);
+        lock.unlock();
+        this.requeued = running;
+    }
 
+    /**
+     * Private helper method that puts a process that has just entered the ready state
+     * on the ready queue of this object's type of scheduling. For MLFQ, that is the
+     * level the process is on.
+     *
+     * @param p - the process to put on the ready queue
+     */
+    private void makeReady(Process p) {
+        if (this.stats != null) {
+            this.stats.queueOperation();
+        }
+        switch (this.type) {
+            case RR -> this.roundRobinQueue.addLast(p);
+            case MLFQ -> this.feedbackQueues[p.getQueueLevel()].addLast(p);
+            case PRIORITY_NP, PRIORITY_P -> this.priorityQueue.add(p);
+            case CFS -> this.fairQueue.add(p);
+            default -> readyQueue.add(p);
+        }
+    }
+
+    /**
+     * Private helper method called when the running process has finished its current
+     * CPU burst. If it was its last one, the process terminates and its times are
+     * recorded in the histograms; otherwise it is blocked for its next I/O burst and
+     * put on the timer wheel. Either way, the caller then releases the lock.
+     *
+     * @param p - the process whose CPU burst ended
+     * @param time - the time the CPU burst ended
+     */
+    private void endBurst(Process p, long time) {
+        if (p.isLastBurst()) {
+            p.terminate(time);
+            this.processesLeft--;
+            this.waitingTimes.record(p.getWaitingTime());
+            this.turnaroundTimes.record(p.getTurnaroundTime());
+            this.responseTimes.record(p.getResponseTime());
+        } else {
+            p.block(time);
+            this.blocked.add(p);
+        }
+    }
+
+    /**
+     * Private helper method called when there is nothing to run, so the CPU sits idle
+     * until the next process enters the ready state.
+     *
+     * @param time - the current time
+     * @return long - the time the next process becomes ready
+     */
+    private long idleUntilNextReady(long time) {
+        long next = nextReadyTime();
+        if (this.stats != null) {
+            this.stats.idle(next - time);
+        }
+        return next;
+    }
+
+    /**
+     * Private helper method that updates the instrumentation counters when a process
+     * is taken off the ready queue and given the lock. If the process that held the
+     * lock last was put back on the ready queue in the middle of its CPU burst and
+     * another process gets the lock, it was preempted.
+     *
+     * @param p - the process being given the lock
+     * @param time - the current time
+     */
+    private void recordDispatch(Process p, long time) {
+        this.stats.queueOperation();
+        if (this.requeued != null && this.requeued != p) {
+            this.stats.preempted();
+        }
+        this.stats.sample(time, readyCount());
+    }
+
+    /**
+     * Private helper method that returns the number of processes on the ready queue,
+     * counting every level for MLFQ.
+     *
+     * @return int - the number of ready processes
+     */
+    private int readyCount() {
+        return switch (this.type) {
+            case RR -> this.roundRobinQueue.size();
+            case MLFQ -> {
+                int count = 0;
+                for (ProcessRing level : this.feedbackQueues) {
+                    count += level.size();
+                }
+                yield count;
+            }
+            case PRIORITY_NP, PRIORITY_P -> this.priorityQueue.size();
+            case CFS -> this.fairQueue.size();
+            default -> this.readyQueue.size();
+        };
+    }
+
+    /**
+     * Private helper method that returns the next time a process will enter the ready
+     * state: the earlier of the next arrival and the next I/O completion.
+     *
+     * @return long - the next time a process becomes ready, or Long.MAX_VALUE if none
+     */
+    private long nextReadyTime() {
+        long next = this.blocked.nextWakeTime();
+        if (this.nextArrival < this.arrivalOrder.length) {
+            next = Math.min(next, this.arrivalOrder[this.nextArrival].getArrivalTime());
+        }
+        return next;
+    }
+
+}
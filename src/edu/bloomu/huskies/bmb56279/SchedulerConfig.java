@@ -0,0 +1,233 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A class that holds the tunable parameters of a Scheduler. Each scheduling algorithm
+ * only reads the parameters that apply to it, and every parameter has a sensible
+ * default, so a new SchedulerConfig can be used as is. A config must not be changed
+ * while a Scheduler that uses it is simulating, but the same config can be shared by
+ * any number of Schedulers.
+ *
+ * @author Brett Bernardi
+ */
+public class SchedulerConfig {
+    // Round Robin: the time quantum. MLFQ: the time quantum of the top level.
+    private int timeQuantum;
+    // MLFQ: the number of levels. Each level's quantum is twice the one above it.
+    private int feedbackLevels;
+    // MLFQ: every this many units of time, every process is moved back to the top
+    // level. 0 turns priority boosting off.
+    private long boostPeriod;
+    // The time it takes to switch the CPU from one process to another. 0 means
+    // context switches are instantaneous.
+    private long contextSwitchCost;
+    // Multi-core only: the extra time it takes to switch to a process that last ran
+    // on a different core (its cache is cold).
+    private long migrationCost;
+    // Priority scheduling: every this many units of time, every waiting process
+    // becomes one level more urgent. 0 turns aging off.
+    private long agingInterval;
+    // CFS: the time in which every ready process should get to run once, and the
+    // shortest time slice a process gets, however many processes are ready
+    private long targetLatency;
+    private long minGranularity;
+
+    /**
+     * Constructor that initializes every parameter to its default.
+     */
+    public SchedulerConfig() {
+        this.timeQuantum = 4;
+        this.feedbackLevels = 3;
+        this.boostPeriod = 100;
+        this.contextSwitchCost = 0;
+        this.migrationCost = 0;
+        this.agingInterval = 10;
+        this.targetLatency = 24;
+        this.minGranularity = 3;
+    }
+
+    /**
+     * Getter for the time quantum
+     * @return int - the time quantum
+     */
+    public int getTimeQuantum() {
+        return this.timeQuantum;
+    }
+
+    /**
+     * Setter for the time quantum used by Round Robin, and by the top level of MLFQ.
+     * @param timeQuantum - the time quantum, at least one
+     */
+    public void setTimeQuantum(int timeQuantum) {
+        if (timeQuantum < 1) {
+            throw new IllegalArgumentException("Time quantum must be at least one");
+        }
+        this.timeQuantum = timeQuantum;
+    }
+
+    /**
+     * Getter for the number of MLFQ levels
+     * @return int - the number of levels
+     */
+    public int getFeedbackLevels() {
+        return this.feedbackLevels;
+    }
+
+    /**
+     * Setter for the number of MLFQ levels.
+     * @param feedbackLevels - the number of levels, between 1 and 31
+     */
+    public void setFeedbackLevels(int feedbackLevels) {
+        if (feedbackLevels < 1 || feedbackLevels > 31) {
+            throw new IllegalArgumentException("MLFQ needs between 1 and 31 levels");
+        }
+        this.feedbackLevels = feedbackLevels;
+    }
+
+    /**
+     * Getter for the MLFQ priority boost period
+     * @return long - the boost period, or 0 if boosting is off
+     */
+    public long getBoostPeriod() {
+        return this.boostPeriod;
+    }
+
+    /**
+     * Setter for the MLFQ priority boost period.
+     * @param boostPeriod - the boost period, or 0 to turn boosting off
+     */
+    public void setBoostPeriod(long boostPeriod) {
+        if (boostPeriod < 0) {
+            throw new IllegalArgumentException("Boost period can't be negative");
+        }
+        this.boostPeriod = boostPeriod;
+    }
+
+    /**
+     * Getter for the context switch cost
+     * @return long - the time each context switch takes
+     */
+    public long getContextSwitchCost() {
+        return this.contextSwitchCost;
+    }
+
+    /**
+     * Setter for the context switch cost, charged every time the lock on a CPU goes
+     * to a different process than the one that held it last.
+     * @param contextSwitchCost - the time each context switch takes, or 0
+     */
+    public void setContextSwitchCost(long contextSwitchCost) {
+        if (contextSwitchCost < 0) {
+            throw new IllegalArgumentException("Context switch cost can't be negative");
+        }
+        this.contextSwitchCost = contextSwitchCost;
+    }
+
+    /**
+     * Getter for the migration cost
+     * @return long - the extra time each migration takes
+     */
+    public long getMigrationCost() {
+        return this.migrationCost;
+    }
+
+    /**
+     * Setter for the migration cost, charged on top of the context switch cost when a
+     * process is dispatched on a different core than the one it last ran on.
+     * @param migrationCost - the extra time each migration takes, or 0
+     */
+    public void setMigrationCost(long migrationCost) {
+        if (migrationCost < 0) {
+            throw new IllegalArgumentException("Migration cost can't be negative");
+        }
+        this.migrationCost = migrationCost;
+    }
+
+    /**
+     * Getter for the aging interval
+     * @return long - the time between two agings of the waiting processes
+     */
+    public long getAgingInterval() {
+        return this.agingInterval;
+    }
+
+    /**
+     * Setter for the aging interval. Every aging interval, every process waiting on
+     * the ready queue of a priority scheduler becomes one level more urgent, so a
+     * process can't be starved forever by more urgent ones.
+     * @param agingInterval - the time between two agings, or 0 for no aging
+     */
+    public void setAgingInterval(long agingInterval) {
+        if (agingInterval < 0) {
+            throw new IllegalArgumentException("Aging interval can't be negative");
+        }
+        this.agingInterval = agingInterval;
+    }
+
+    /**
+     * Getter for the CFS target latency
+     * @return long - the time in which every ready process should get to run once
+     */
+    public long getTargetLatency() {
+        return this.targetLatency;
+    }
+
+    /**
+     * Setter for the CFS target latency. The processes ready to run share it out as
+     * time slices in proportion to their weights, unless there are so many that the
+     * slices would be shorter than the minimum granularity.
+     * @param targetLatency - the target latency, at least one
+     */
+    public void setTargetLatency(long targetLatency) {
+        if (targetLatency < 1) {
+            throw new IllegalArgumentException("Target latency must be at least one");
+        }
+        this.targetLatency = targetLatency;
+    }
+
+    /**
+     * Getter for the CFS minimum granularity
+     * @return long - the shortest time slice
+     */
+    public long getMinGranularity() {
+        return this.minGranularity;
+    }
+
+    /**
+     * Setter for the CFS minimum granularity: the shortest time slice a process gets,
+     * and how far behind the running process a process that becomes ready must be to
+     * preempt it.
+     * @param minGranularity - the minimum granularity, at least one
+     */
+    public void setMinGranularity(long minGranularity) {
+        if (minGranularity < 1) {
+            throw new IllegalArgumentException("Minimum granularity must be at least " +
+                    "one");
+        }
+        this.minGranularity = minGranularity;
+    }
+
+    /**
+     * Returns the time quantum of an MLFQ level: the top level's quantum doubled once
+     * for every level below the top.
+     * @param level - the level, 0 being the top
+     * @return long - the time quantum of the level
+     */
+    public long getLevelQuantum(int level) {
+        return (long) this.timeQuantum << level;
+    }
+
+    /**
+     * Puts every parameter in a buffer, so two configs that would simulate the same
+     * way produce the same bytes. A new parameter must be added here too, or the
+     * ResultCache would mix up results simulated with different values of it.
+     * @param buffer - the buffer to put the parameters in
+     */
+    void putParameters(ByteBuffer buffer) {
+        buffer.putInt(this.timeQuantum).putInt(this.feedbackLevels)
+                .putLong(this.boostPeriod).putLong(this.contextSwitchCost)
+                .putLong(this.migrationCost).putLong(this.agingInterval)
+                .putLong(this.targetLatency).putLong(this.minGranularity);
+    }
+}
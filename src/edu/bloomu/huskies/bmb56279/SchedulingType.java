@@ -1,7 +1,7 @@
 package edu.bloomu.huskies.bmb56279;
 
 /**
- * Enum that lists the three different types of scheduling algorithms to be used by the
+ * Enum that lists the different types of scheduling algorithms to be used by the
  * Scheduler class.
  *
  * @author Brett Bernardi
@@ -12,5 +12,15 @@ public enum SchedulingType {
     // Shortest Job First, Non-Preemptive
     SJFNP,
     // Shortest Job First (Shortest Remaining Time First)
-    SRTF
+    SRTF,
+    // Round Robin with a fixed time quantum
+    RR,
+    // Multilevel Feedback Queue with priority boosting
+    MLFQ,
+    // Priority scheduling with aging, Non-Preemptive
+    PRIORITY_NP,
+    // Priority scheduling with aging, Preemptive
+    PRIORITY_P,
+    // Completely Fair Scheduler: CPU time shared by weight, from each priority
+    CFS
 }
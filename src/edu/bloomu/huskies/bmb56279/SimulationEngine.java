@@ -0,0 +1,15 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * Enum that lists the two different ways the Scheduler class can advance its clock
+ * while simulating a work load.
+ *
+ * @author Brett Bernardi
+ */
+public enum SimulationEngine {
+    // Advance the clock one unit of time per loop iteration
+    TICK,
+    // Jump the clock straight from one scheduling event (arrival, completion,
+    // preemption point) to the next
+    EVENT_DRIVEN
+}
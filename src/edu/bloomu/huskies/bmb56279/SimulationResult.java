@@ -0,0 +1,105 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * The results of one simulation, detached from the Scheduler that produced them: the
+ * type of scheduling, the run-length encoded schedule of execution, and the waiting,
+ * turnaround and response time of every process, in the order the processes were
+ * given in the work load. Results can be written to and read from a compact binary
+ * form with the BinaryFormat class.
+ *
+ * @author Brett Bernardi
+ */
+public final class SimulationResult {
+    private final SchedulingType type;
+    private final Timeline timeline;
+    // the metrics of each process, indexed by its position in the work load
+    private final long[] waitingTimes;
+    private final long[] turnaroundTimes;
+    private final long[] responseTimes;
+
+    /**
+     * Constructor for the SimulationResult class. The arrays are not copied, so they
+     * must not be changed afterwards.
+     * @param type - the type of scheduling simulated
+     * @param timeline - the schedule of execution
+     * @param waitingTimes - the waiting time of each process
+     * @param turnaroundTimes - the turnaround time of each process
+     * @param responseTimes - the response time of each process
+     */
+    public SimulationResult(SchedulingType type, Timeline timeline, long[] waitingTimes,
+                            long[] turnaroundTimes, long[] responseTimes) {
+        if (waitingTimes.length != turnaroundTimes.length
+                || waitingTimes.length != responseTimes.length) {
+            throw new IllegalArgumentException("Every process needs every metric");
+        }
+        this.type = type;
+        this.timeline = timeline;
+        this.waitingTimes = waitingTimes;
+        this.turnaroundTimes = turnaroundTimes;
+        this.responseTimes = responseTimes;
+    }
+
+    /**
+     * Getter for the type of scheduling simulated
+     * @return SchedulingType - the type of scheduling
+     */
+    public SchedulingType getType() {
+        return this.type;
+    }
+
+    /**
+     * Getter for the schedule of execution
+     * @return Timeline - the schedule of execution
+     */
+    public Timeline getTimeline() {
+        return this.timeline;
+    }
+
+    /**
+     * Getter for the number of processes
+     * @return int - the number of processes
+     */
+    public int size() {
+        return this.waitingTimes.length;
+    }
+
+    /**
+     * Getter for the waiting time of a process
+     * @param i - the position of the process in the work load
+     * @return long - the waiting time
+     */
+    public long getWaitingTime(int i) {
+        return this.waitingTimes[i];
+    }
+
+    /**
+     * Getter for the turnaround time of a process
+     * @param i - the position of the process in the work load
+     * @return long - the turnaround time
+     */
+    public long getTurnaroundTime(int i) {
+        return this.turnaroundTimes[i];
+    }
+
+    /**
+     * Getter for the response time of a process
+     * @param i - the position of the process in the work load
+     * @return long - the response time
+     */
+    public long getResponseTime(int i) {
+        return this.responseTimes[i];
+    }
+
+    /**
+     * Calculates and returns the average waiting time of every process.
+     *
+     * @return double - the Avg. Waiting Time.
+     */
+    public double getAvgWaitTime() {
+        double sum = 0;
+        for (long waitingTime : this.waitingTimes) {
+            sum += waitingTime;
+        }
+        return sum / this.waitingTimes.length;
+    }
+}
@@ -0,0 +1,160 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Optional instrumentation counters for a simulation: how many processes were
+ * admitted, how many ready queue operations and preemptions there were, how long the
+ * CPU sat idle, and how deep the ready queue was over time. A Scheduler or
+ * StreamingScheduler only updates them if it has been given a SimulationStats object;
+ * otherwise each update point is a single null check, so instrumentation costs nothing
+ * when it is disabled.
+ *
+ * The counters are written by the thread running the simulation and can be read at
+ * any time from any other thread, either one at a time through the MBean interface
+ * (see register()) or all at once with snapshot(). Comparing two snapshots gives the
+ * rates between them, such as processes admitted per second of wall-clock time.
+ * A SimulationStats object should only be given to one simulation at a time.
+ *
+ * @author Brett Bernardi
+ */
+public class SimulationStats implements SimulationStatsMBean {
+    // Every counter has a single writer, so volatile is enough for other threads to
+    // see up to date values.
+    private volatile long processesAdmitted;
+    private volatile long queueOperations;
+    private volatile long preemptions;
+    private volatile long idleTime;
+    private volatile long simulatedTime;
+    private volatile int readyQueueDepth;
+    private volatile int maxReadyQueueDepth;
+    // the sum of the ready queue depth over every unit of simulated time
+    private volatile double depthTime;
+    // the wall-clock time the stats were created, from System.nanoTime()
+    private final long startNanos;
+
+    /**
+     * Constructor for stats with every counter at zero. Rates are measured from the
+     * time this object is created.
+     */
+    public SimulationStats() {
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Registers these stats with the platform MBean server, under the name
+     * edu.bloomu.huskies.bmb56279:type=SimulationStats,name=(name).
+     * @param name - distinguishes these stats from those of other simulations
+     * @return ObjectName - the name they were registered under
+     * @throws JMException - thrown if the name is invalid or already taken
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(getClass().getPackageName()
+                + ":type=SimulationStats,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Takes a copy of every counter, along with the current
+     * wall-clock time. Values may be from slightly different points of the simulation
+     * if it is running.
+     * @return StatsSnapshot - the current value of every counter
+     */
+    public StatsSnapshot snapshot() {
+        return new StatsSnapshot(System.nanoTime(), this.processesAdmitted,
+                this.queueOperations, this.preemptions, this.idleTime,
+                this.simulatedTime, this.readyQueueDepth, this.maxReadyQueueDepth,
+                getAverageReadyQueueDepth());
+    }
+
+    // Called when a process arrives.
+    void admitted() {
+        this.processesAdmitted++;
+    }
+
+    // Called when a process is added to or removed from the ready queue.
+    void queueOperation() {
+        this.queueOperations++;
+    }
+
+    // Called when a process loses the CPU to another one before its burst is over.
+    void preempted() {
+        this.preemptions++;
+    }
+
+    // Called when the CPU sits idle.
+    void idle(long units) {
+        this.idleTime += units;
+    }
+
+    // Called at each scheduling decision with the current time and the number of
+    // processes then on the ready queue. The previous depth counts for all of the time
+    // since the last call.
+    void sample(long time, int depth) {
+        this.depthTime += (double) this.readyQueueDepth * (time - this.simulatedTime);
+        this.simulatedTime = time;
+        this.readyQueueDepth = depth;
+        if (depth > this.maxReadyQueueDepth) {
+            this.maxReadyQueueDepth = depth;
+        }
+    }
+
+    @Override
+    public long getProcessesAdmitted() {
+        return this.processesAdmitted;
+    }
+
+    @Override
+    public long getQueueOperations() {
+        return this.queueOperations;
+    }
+
+    @Override
+    public long getPreemptions() {
+        return this.preemptions;
+    }
+
+    @Override
+    public long getIdleTime() {
+        return this.idleTime;
+    }
+
+    @Override
+    public long getSimulatedTime() {
+        return this.simulatedTime;
+    }
+
+    @Override
+    public int getReadyQueueDepth() {
+        return this.readyQueueDepth;
+    }
+
+    @Override
+    public int getMaxReadyQueueDepth() {
+        return this.maxReadyQueueDepth;
+    }
+
+    @Override
+    public double getAverageReadyQueueDepth() {
+        long time = this.simulatedTime;
+        return time == 0 ? 0 : this.depthTime / time;
+    }
+
+    @Override
+    public double getAdmittedPerSecond() {
+        return this.processesAdmitted / elapsedSeconds();
+    }
+
+    @Override
+    public double getSimulatedTimePerSecond() {
+        return this.simulatedTime / elapsedSeconds();
+    }
+
+    // wall-clock seconds since these stats were created
+    private double elapsedSeconds() {
+        return (System.nanoTime() - this.startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,70 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * The management interface of SimulationStats, so a running simulation can be watched
+ * from JConsole or any other JMX client once its stats have been registered with
+ * SimulationStats.register().
+ *
+ * @author Brett Bernardi
+ */
+public interface SimulationStatsMBean {
+    /**
+     * Getter for the number of processes that have arrived
+     * @return long - the number of processes admitted to the ready queue
+     */
+    long getProcessesAdmitted();
+
+    /**
+     * Getter for the number of operations on the ready queue
+     * @return long - the number of adds and removes
+     */
+    long getQueueOperations();
+
+    /**
+     * Getter for the number of preemptions
+     * @return long - the number of times a process lost the CPU with time left
+     */
+    long getPreemptions();
+
+    /**
+     * Getter for the total time the CPU was idle
+     * @return long - the number of idle units of time
+     */
+    long getIdleTime();
+
+    /**
+     * Getter for the current time of the simulation
+     * @return long - the simulated time
+     */
+    long getSimulatedTime();
+
+    /**
+     * Getter for the number of processes on the ready queue at the last decision
+     * @return int - the ready queue depth
+     */
+    int getReadyQueueDepth();
+
+    /**
+     * Getter for the largest number of processes on the ready queue
+     * @return int - the maximum ready queue depth
+     */
+    int getMaxReadyQueueDepth();
+
+    /**
+     * Returns the average number of processes on the ready queue over simulated time
+     * @return double - the average ready queue depth
+     */
+    double getAverageReadyQueueDepth();
+
+    /**
+     * Returns the number of processes admitted per second of wall-clock time
+     * @return double - the admission rate
+     */
+    double getAdmittedPerSecond();
+
+    /**
+     * Returns the number of units of simulated time per second of wall-clock time
+     * @return double - the simulation speed
+     */
+    double getSimulatedTimePerSecond();
+}
@@ -0,0 +1,160 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * An immutable copy of the counters of a SimulationStats object, taken at a known
+ * wall-clock time. Taking snapshots periodically and comparing each one to the one
+ * before gives the current throughput of a long simulation, rather than its average
+ * since the start.
+ *
+ * @author Brett Bernardi
+ */
+public final class StatsSnapshot {
+    // the wall-clock time the snapshot was taken, from System.nanoTime()
+    private final long nanoTime;
+    private final long processesAdmitted;
+    private final long queueOperations;
+    private final long preemptions;
+    private final long idleTime;
+    private final long simulatedTime;
+    private final int readyQueueDepth;
+    private final int maxReadyQueueDepth;
+    private final double averageReadyQueueDepth;
+
+    /**
+     * Constructor for the StatsSnapshot class.
+     * @param nanoTime - the wall-clock time the snapshot was taken
+     * @param processesAdmitted - the number of processes that have arrived
+     * @param queueOperations - the number of adds and removes on the ready queue
+     * @param preemptions - the number of preemptions
+     * @param idleTime - the total time the CPU was idle
+     * @param simulatedTime - the current time of the simulation
+     * @param readyQueueDepth - the ready queue depth at the last decision
+     * @param maxReadyQueueDepth - the largest ready queue depth
+     * @param averageReadyQueueDepth - the average ready queue depth over time
+     */
+    public StatsSnapshot(long nanoTime, long processesAdmitted, long queueOperations,
+                         long preemptions, long idleTime, long simulatedTime,
+                         int readyQueueDepth, int maxReadyQueueDepth,
+                         double averageReadyQueueDepth) {
+        this.nanoTime = nanoTime;
+        this.processesAdmitted = processesAdmitted;
+        this.queueOperations = queueOperations;
+        this.preemptions = preemptions;
+        this.idleTime = idleTime;
+        this.simulatedTime = simulatedTime;
+        this.readyQueueDepth = readyQueueDepth;
+        this.maxReadyQueueDepth = maxReadyQueueDepth;
+        this.averageReadyQueueDepth = averageReadyQueueDepth;
+    }
+
+    /**
+     * Returns the number of processes admitted per second of wall-clock time between
+     * an earlier snapshot and this one.
+     * @param earlier - a snapshot of the same stats taken before this one
+     * @return double - the admission rate
+     */
+    public double getAdmittedPerSecond(StatsSnapshot earlier) {
+        return (this.processesAdmitted - earlier.processesAdmitted)
+                / secondsSince(earlier);
+    }
+
+    /**
+     * Returns the number of units of simulated time per second of wall-clock time
+     * between an earlier snapshot and this one.
+     * @param earlier - a snapshot of the same stats taken before this one
+     * @return double - the simulation speed
+     */
+    public double getSimulatedTimePerSecond(StatsSnapshot earlier) {
+        return (this.simulatedTime - earlier.simulatedTime) / secondsSince(earlier);
+    }
+
+    // wall-clock seconds between an earlier snapshot and this one
+    private double secondsSince(StatsSnapshot earlier) {
+        return (this.nanoTime - earlier.nanoTime) / 1e9;
+    }
+
+    /**
+     * Getter for the wall-clock time the snapshot was taken
+     * @return long - the time, from System.nanoTime()
+     */
+    public long getNanoTime() {
+        return this.nanoTime;
+    }
+
+    /**
+     * Getter for the number of processes that have arrived
+     * @return long - the number of processes admitted
+     */
+    public long getProcessesAdmitted() {
+        return this.processesAdmitted;
+    }
+
+    /**
+     * Getter for the number of operations on the ready queue
+     * @return long - the number of adds and removes
+     */
+    public long getQueueOperations() {
+        return this.queueOperations;
+    }
+
+    /**
+     * Getter for the number of preemptions
+     * @return long - the number of preemptions
+     */
+    public long getPreemptions() {
+        return this.preemptions;
+    }
+
+    /**
+     * Getter for the total time the CPU was idle
+     * @return long - the number of idle units of time
+     */
+    public long getIdleTime() {
+        return this.idleTime;
+    }
+
+    /**
+     * Getter for the time of the simulation
+     * @return long - the simulated time
+     */
+    public long getSimulatedTime() {
+        return this.simulatedTime;
+    }
+
+    /**
+     * Getter for the ready queue depth at the last decision
+     * @return int - the ready queue depth
+     */
+    public int getReadyQueueDepth() {
+        return this.readyQueueDepth;
+    }
+
+    /**
+     * Getter for the largest ready queue depth
+     * @return int - the maximum ready queue depth
+     */
+    public int getMaxReadyQueueDepth() {
+        return this.maxReadyQueueDepth;
+    }
+
+    /**
+     * Getter for the average ready queue depth over simulated time
+     * @return double - the average ready queue depth
+     */
+    public double getAverageReadyQueueDepth() {
+        return this.averageReadyQueueDepth;
+    }
+
+    /**
+     * Overrides toString().
+     * @return String - representation of the snapshot
+     */
+    @Override
+    public String toString() {
+        return String.format("time %d admitted %d queue ops %d preemptions %d idle %d " +
+                        "depth %d (max %d, avg %.2f)", this.simulatedTime,
+                this.processesAdmitted, this.queueOperations, this.preemptions,
+                this.idleTime, this.readyQueueDepth, this.maxReadyQueueDepth,
+                this.averageReadyQueueDepth);
+    }
+}
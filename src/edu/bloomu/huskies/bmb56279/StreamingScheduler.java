@@ -0,0 +1,731 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * A scheduler for work loads that are too large to hold in memory, or that are not
+ * known in advance. Instead of taking the whole work load in its constructor like the
+ * Scheduler class, it is fed processes one at a time, in order of arrival, only as the
+ * simulation clock reaches them. A Process object exists only from the time it is
+ * submitted until it terminates; its waiting, turnaround and response times are then
+ * recorded in LatencyHistograms and the object is dropped. Memory is therefore bounded by
+ * the number of processes in the system at any one time, not by the size of the work
+ * load.
+ *
+ * The simulation can be driven in one of two ways. simulate() pulls every process from
+ * an ArrivalSource (such as a TraceReader) and runs until all of them have terminated.
+ * Otherwise, the caller drives it incrementally, for example from a live feed of
+ * events: submit() processes as they arrive, move the clock forward with advance() or
+ * advanceTo(), and query the metrics in between; finish() runs until every submitted
+ * process has terminated. The state of the simulation persists between calls. No
+ * scheduling decision is made at the time the clock stops at, so processes submitted
+ * for that time still compete with everything else that arrives at it, and both ways
+ * produce the same schedule as simulate().
+ *
+ * The full state of the simulation can be written to a checkpoint between calls, or
+ * periodically while simulate() runs, and a new StreamingScheduler can be restored from
+ * it to carry on where the old one left off. A checkpoint is a binary file in the style
+ * of the BinaryFormat class:
+ *
+ *      header:  magic "CPUC" | version (int) | type ordinal (int) | 1 if the timeline
+ *               is recorded, else 0 (int)
+ *      clock:   time | last arrival | busy time | processes submitted (longs) |
+ *               next process ID (int)
+ *      running: 1 and a process record if a process holds the CPU, else 0 (int)
+ *      queues:  ready queue, then processes that have not arrived yet, each as a count
+ *               (int) followed by process records
+ *      metrics: waiting, turnaround and response time histograms, each as a bucket
+ *               count (int), the buckets, count, min, max and sum (longs)
+ *      timeline: segment count (long) and segments, if recorded
+ *      trailer: CRC32C of everything before it (int)
+ *
+ * The ready queue is written in the order of the array behind its heap, and adding the
+ * processes back in that order rebuilds exactly the same heap. Ties are therefore
+ * broken the same way after a restore, and a restored simulation produces exactly
+ * the same results as one that was never interrupted.
+ *
+ * It supports the same three scheduling algorithms as the Scheduler class, using the
+ * same event-driven approach as its event-driven engine. Recording the run-length
+ * schedule is optional, since it grows with the number of context switches.
+ *
+ * @author Brett Bernardi
+ */
+public class StreamingScheduler implements LatencyMetrics {
+    // "CPUC" read as a little-endian int
+    static final int CHECKPOINT_MAGIC = 0x43555043;
+    // the version of the checkpoint format, which changes apart from BinaryFormat's
+    static final int CHECKPOINT_VERSION = 2;
+    static final int CHECKPOINT_HEADER_SIZE = 16;
+    static final int CHECKPOINT_CLOCK_SIZE = 36;
+    static final int CHECKPOINT_PROCESS_SIZE = 44;
+    // more than a histogram can have for any long value
+    private static final int MAX_HISTOGRAM_BUCKETS = 1 << 13;
+
+    // where processes come from when simulate() is called, or null if they are
+    // submitted by the caller
+    private final ArrivalSource source;
+    // The type of algorithm to be used to schedule this work load
+    private final SchedulingType type;
+    // The ready queue that processes are put on when they arrive
+    private final PriorityQueue<Process> readyQueue;
+    // processes that have been submitted but have not arrived yet, in order of arrival
+    private final ProcessRing arrivals;
+    // the process holding the CPU, or null if it is idle
+    private Process running;
+    // The schedule of Processes executed, or null if it is not being recorded
+    private final Timeline timeline;
+    // the ID given to the next process that arrives
+    private int nextPID;
+    // the arrival time of the last process submitted, and the number submitted
+    private long lastArrival;
+    private long submitted;
+    // the waiting, turnaround and response times of every terminated process
+    private LatencyHistogram waitingTimes;
+    private LatencyHistogram turnaroundTimes;
+    private LatencyHistogram responseTimes;
+    // total time the CPU spent executing processes
+    private long busyTime;
+    // instrumentation counters, or null if instrumentation is disabled
+    private SimulationStats stats;
+    // the current time of the simulation
+    private long time;
+    // while simulate() writes checkpoints, the file, the time between them, and the
+    // time the next one is due, which is Long.MAX_VALUE the rest of the time
+    private Path checkpointFile;
+    private long checkpointInterval;
+    private long nextCheckpoint;
+
+    /**
+     * Constructor for the StreamingScheduler class that pulls processes from a source
+     * when simulate() is called.
+     * @param source - where processes come from, in order of arrival
+     * @param type - type of scheduling(enum) specified
+     * @param recordTimeline - true to record the schedule of execution
+     */
+    public StreamingScheduler(ArrivalSource source, SchedulingType type,
+                              boolean recordTimeline) {
+        if (type != SchedulingType.FCFS && type != SchedulingType.SJFNP
+                && type != SchedulingType.SRTF) {
+            throw new IllegalArgumentException(type + " is not supported by this " +
+                    "scheduler; use the Scheduler class");
+        }
+        this.source = source;
+        this.type = type;
+        this.readyQueue = this.type == SchedulingType.FCFS
+                ? new PriorityQueue<>(new FCFSComparator())
+                : new PriorityQueue<>(new SJFComparator());
+        this.arrivals = new ProcessRing();
+        this.timeline = recordTimeline ? new Timeline() : null;
+        this.nextPID = 0;
+        this.waitingTimes = new LatencyHistogram();
+        this.turnaroundTimes = new LatencyHistogram();
+        this.responseTimes = new LatencyHistogram();
+        this.nextCheckpoint = Long.MAX_VALUE;
+    }
+
+    /**
+     * Constructor for a StreamingScheduler that is fed processes by the caller, with
+     * submit(), instead of pulling them from a source.
+     * @param type - type of scheduling(enum) specified
+     * @param recordTimeline - true to record the schedule of execution
+     */
+    public StreamingScheduler(SchedulingType type, boolean recordTimeline) {
+        this(null, type, recordTimeline);
+    }
+
+    /**
+     * Simulates the scheduling and execution of every process in the source, until
+     * the source is used up and every process has terminated.
+     * @throws ImproperArguments - thrown if the source holds an invalid process
+     */
+    public void simulate() throws ImproperArguments {
+        requireSource();
+        pullAll();
+    }
+
+    /**
+     * Simulates the scheduling and execution of every process in the source, like
+     * simulate(), and writes a checkpoint to the given file every time the clock has
+     * moved forward by the given interval, including while the last processes are
+     * finishing after the source is used up. If this object was restored from a
+     * checkpoint, the simulation carries on from there. Each checkpoint replaces the
+     * previous one atomically, so the file always holds a complete checkpoint.
+     * @param checkpointFile - the file to write checkpoints to, or null for none
+     * @param interval - the amount of simulated time between checkpoints
+     * @throws ImproperArguments - thrown if the source holds an invalid process
+     * @throws IOException - thrown if a checkpoint can't be written
+     */
+    public void simulate(Path checkpointFile, long interval)
+            throws ImproperArguments, IOException {
+        requireSource();
+        if (interval <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be " +
+                    "positive");
+        }
+        if (checkpointFile == null) {
+            pullAll();
+            return;
+        }
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = interval;
+        this.nextCheckpoint = saturatedAdd(this.time, interval);
+        try {
+            pullAll();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.checkpointFile = null;
+            this.nextCheckpoint = Long.MAX_VALUE;
+        }
+    }
+
+    // Throws an IllegalStateException if there is no source to pull processes from.
+    private void requireSource() {
+        if (this.source == null) {
+            throw new IllegalStateException("This scheduler has no source; use " +
+                    "submit() and advance() instead");
+        }
+    }
+
+    // Submits every process in the source as the clock reaches it, then runs until
+    // every one of them has terminated.
+    private void pullAll() throws ImproperArguments {
+        while (this.source.advance()) {
+            advanceTo(this.source.getArrivalTime());
+            submit(this.source.getArrivalTime(), this.source.getBurstLength());
+        }
+        finish();
+    }
+
+    // Writes the periodic checkpoint that is due at the given time and schedules the
+    // next one. The run loop can't throw an IOException, so it is wrapped, and
+    // simulate() unwraps it.
+    private void writeDueCheckpoint(long time) {
+        this.time = time;
+        try {
+            checkpoint(this.checkpointFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.nextCheckpoint = saturatedAdd(time, this.checkpointInterval);
+    }
+
+    /**
+     * Writes the full state of the simulation to a file, replacing it atomically: the
+     * checkpoint is written to a temporary file next to it, forced to the disk, and
+     * then moved over the old one.
+     * @param file - the file to write the checkpoint to
+     * @throws IOException - thrown if the file can't be written
+     */
+    public void checkpoint(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            checkpoint(channel);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the full state of the simulation to a channel: the clock, the process
+     * holding the CPU, the ready queue, the processes that have not arrived yet, the
+     * metrics so far and the timeline so far. The instrumentation counters and the
+     * source are not part of it.
+     * @param channel - the channel to write to
+     * @throws IOException - thrown if the channel can't be written
+     */
+    public void checkpoint(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = BinaryFormat.newBuffer();
+        CRC32C crc = new CRC32C();
+        buffer.putInt(CHECKPOINT_MAGIC).putInt(CHECKPOINT_VERSION)
+                .putInt(this.type.ordinal()).putInt(this.timeline != null ? 1 : 0);
+        buffer.putLong(this.time).putLong(this.lastArrival).putLong(this.busyTime)
+                .putLong(this.submitted).putInt(this.nextPID);
+        buffer.putInt(this.running != null ? 1 : 0);
+        if (this.running != null) {
+            putProcess(channel, buffer, crc, this.running);
+        }
+        Object[] ready = this.readyQueue.toArray();
+        buffer.putInt(ready.length);
+        for (Object p : ready) {
+            putProcess(channel, buffer, crc, (Process) p);
+        }
+        reserve(channel, buffer, crc, Integer.BYTES);
+        buffer.putInt(this.arrivals.size());
+        for (int i = 0; i < this.arrivals.size(); i++) {
+            putProcess(channel, buffer, crc, this.arrivals.get(i));
+        }
+        putHistogram(channel, buffer, crc, this.waitingTimes);
+        putHistogram(channel, buffer, crc, this.turnaroundTimes);
+        putHistogram(channel, buffer, crc, this.responseTimes);
+        if (this.timeline != null) {
+            reserve(channel, buffer, crc, Long.BYTES);
+            buffer.putLong(this.timeline.size());
+            for (int i = 0; i < this.timeline.size(); i++) {
+                reserve(channel, buffer, crc, BinaryFormat.SEGMENT_RECORD_SIZE);
+                buffer.putInt(this.timeline.getId(i)).putLong(this.timeline.getStart(i))
+                        .putLong(this.timeline.getLength(i));
+            }
+        }
+        reserve(channel, buffer, crc, buffer.capacity());
+        buffer.putInt((int) crc.getValue());
+        BinaryFormat.drain(channel, buffer);
+    }
+
+    /**
+     * Restores a simulation from a checkpoint file. See restore() below.
+     * @param file - the file holding the checkpoint
+     * @param source - the source the simulation was pulling processes from, at its
+     * start, or null if processes are submitted by the caller
+     * @return StreamingScheduler - a scheduler in the state of the checkpoint
+     * @throws IOException - thrown if the file can't be read or ends too soon
+     * @throws ImproperArguments - thrown if the file is not a valid checkpoint
+     */
+    public static StreamingScheduler restore(Path file, ArrivalSource source)
+            throws IOException, ImproperArguments {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return restore(channel, source);
+        }
+    }
+
+    /**
+     * Restores a simulation from a checkpoint. If a source is given, it must be the
+     * same one the checkpointed simulation was pulling processes from, positioned at
+     * its start; the processes that had already been submitted are skipped, so that
+     * simulate() carries on with the next one.
+     * @param channel - the channel to read the checkpoint from
+     * @param source - the source the simulation was pulling processes from, at its
+     * start, or null if processes are submitted by the caller
+     * @return StreamingScheduler - a scheduler in the state of the checkpoint
+     * @throws IOException - thrown if the channel can't be read or ends too soon
+     * @throws ImproperArguments - thrown if the data is not a valid checkpoint, or the
+     * source ends before the processes that were already submitted
+     */
+    public static StreamingScheduler restore(ReadableByteChannel channel,
+                                             ArrivalSource source)
+            throws IOException, ImproperArguments {
+        ByteBuffer buffer = BinaryFormat.newReadBuffer();
+        CRC32C crc = new CRC32C();
+        take(channel, buffer, crc, CHECKPOINT_HEADER_SIZE);
+        if (buffer.getInt() != CHECKPOINT_MAGIC) {
+            throw new ImproperArguments("Not a checkpoint file: bad magic number!");
+        }
+        int version = buffer.getInt();
+        if (version != CHECKPOINT_VERSION) {
+            throw new ImproperArguments("Unsupported format version " + version + "!");
+        }
+        int typeOrdinal = buffer.getInt();
+        if (typeOrdinal < 0 || typeOrdinal >= SchedulingType.values().length) {
+            throw new ImproperArguments("Unknown scheduling type " + typeOrdinal + "!");
+        }
+        StreamingScheduler scheduler = new StreamingScheduler(source,
+                SchedulingType.values()[typeOrdinal], buffer.getInt() != 0);
+
+        take(channel, buffer, crc, CHECKPOINT_CLOCK_SIZE);
+        scheduler.time = buffer.getLong();
+        scheduler.lastArrival = buffer.getLong();
+        scheduler.busyTime = buffer.getLong();
+        scheduler.submitted = buffer.getLong();
+        scheduler.nextPID = buffer.getInt();
+        take(channel, buffer, crc, Integer.BYTES);
+        if (buffer.getInt() != 0) {
+            scheduler.running = getProcess(channel, buffer, crc);
+        }
+        take(channel, buffer, crc, Integer.BYTES);
+        for (int i = buffer.getInt(); i > 0; i--) {
+            scheduler.readyQueue.add(getProcess(channel, buffer, crc));
+        }
+        take(channel, buffer, crc, Integer.BYTES);
+        for (int i = buffer.getInt(); i > 0; i--) {
+            scheduler.arrivals.addLast(getProcess(channel, buffer, crc));
+        }
+        scheduler.waitingTimes = getHistogram(channel, buffer, crc);
+        scheduler.turnaroundTimes = getHistogram(channel, buffer, crc);
+        scheduler.responseTimes = getHistogram(channel, buffer, crc);
+        if (scheduler.timeline != null) {
+            take(channel, buffer, crc, Long.BYTES);
+            for (long i = buffer.getLong(); i > 0; i--) {
+                take(channel, buffer, crc, BinaryFormat.SEGMENT_RECORD_SIZE);
+                scheduler.timeline.append(buffer.getInt(), buffer.getLong(),
+                        buffer.getLong());
+            }
+        }
+        if (buffer.remaining() < Integer.BYTES) {
+            BinaryFormat.fill(channel, buffer, Integer.BYTES);
+        }
+        BinaryFormat.checkChecksum(buffer.getInt(), crc);
+
+        // Skip the processes that were already submitted
+        if (source != null) {
+            for (long i = 0; i < scheduler.submitted; i++) {
+                if (!source.advance()) {
+                    throw new ImproperArguments("The source ends before the processes " +
+                            "in the checkpoint!");
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    // Writes one process that is still in the system.
+    private static void putProcess(WritableByteChannel channel, ByteBuffer buffer,
+                                   CRC32C crc, Process p) throws IOException {
+        reserve(channel, buffer, crc, CHECKPOINT_PROCESS_SIZE);
+        buffer.putInt(p.getID()).putInt(p.getArrivalTime()).putInt(p.getBurstLength())
+                .putInt(p.getCPUTime()).putLong(p.getWaitingTime())
+                .putLong(p.getReadyTime()).putLong(p.getFirstRunTime())
+                .putInt(p.getState().ordinal());
+    }
+
+    // Reads one process written by putProcess().
+    private static Process getProcess(ReadableByteChannel channel, ByteBuffer buffer,
+                                      CRC32C crc) throws IOException, ImproperArguments {
+        take(channel, buffer, crc, CHECKPOINT_PROCESS_SIZE);
+        int id = buffer.getInt();
+        int arrivalTime = buffer.getInt();
+        int burstLength = buffer.getInt();
+        int cpuTimeRemaining = buffer.getInt();
+        long waitingTime = buffer.getLong();
+        long readyTime = buffer.getLong();
+        long firstRunTime = buffer.getLong();
+        int state = buffer.getInt();
+        BinaryFormat.checkProcess(id, arrivalTime, burstLength);
+        if (state < 0 || state >= ProcessState.values().length) {
+            throw new ImproperArguments("Unknown process state " + state + "!");
+        }
+        Process p = new Process(id, arrivalTime, burstLength);
+        p.restore(cpuTimeRemaining, waitingTime, readyTime, firstRunTime,
+                ProcessState.values()[state]);
+        return p;
+    }
+
+    // Writes a histogram.
+    private static void putHistogram(WritableByteChannel channel, ByteBuffer buffer,
+                                     CRC32C crc, LatencyHistogram histogram)
+            throws IOException {
+        long[] counts = histogram.getCounts();
+        reserve(channel, buffer, crc, Integer.BYTES);
+        buffer.putInt(counts.length);
+        for (long count : counts) {
+            reserve(channel, buffer, crc, Long.BYTES);
+            buffer.putLong(count);
+        }
+        reserve(channel, buffer, crc, 4 * Long.BYTES);
+        buffer.putLong(histogram.getCount()).putLong(histogram.getMin())
+                .putLong(histogram.getMax()).putLong(histogram.getSum());
+    }
+
+    // Reads a histogram written by putHistogram().
+    private static LatencyHistogram getHistogram(ReadableByteChannel channel,
+                                                 ByteBuffer buffer, CRC32C crc)
+            throws IOException, ImproperArguments {
+        take(channel, buffer, crc, Integer.BYTES);
+        int buckets = buffer.getInt();
+        if (buckets < 0 || buckets > MAX_HISTOGRAM_BUCKETS) {
+            throw new ImproperArguments("Bad bucket count " + buckets + " in histogram!");
+        }
+        long[] counts = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            take(channel, buffer, crc, Long.BYTES);
+            counts[i] = buffer.getLong();
+        }
+        take(channel, buffer, crc, 4 * Long.BYTES);
+        return new LatencyHistogram(counts, buffer.getLong(), buffer.getLong(),
+                buffer.getLong(), buffer.getLong());
+    }
+
+    // Makes room for the given number of bytes in the buffer, by adding what it holds
+    // to the checksum and writing it to the channel if it is too full.
+    private static void reserve(WritableByteChannel channel, ByteBuffer buffer,
+                                CRC32C crc, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            crc.update(buffer.array(), 0, buffer.position());
+            BinaryFormat.drain(channel, buffer);
+        }
+    }
+
+    // Makes sure the buffer holds the given number of unread bytes, and adds them to
+    // the checksum.
+    private static void take(ReadableByteChannel channel, ByteBuffer buffer, CRC32C crc,
+                             int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            BinaryFormat.fill(channel, buffer, bytes);
+        }
+        crc.update(buffer.array(), buffer.position(), bytes);
+    }
+
+    // a + b, or Long.MAX_VALUE if that overflows
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < a ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Submits a new process. It arrives at the given time, which may be the current
+     * time or later, but not earlier than the last process submitted.
+     * @param arrivalTime - the time the process arrives
+     * @param burstLength - the length of the process's CPU burst
+     * @throws ImproperArguments - thrown if the process arrives in the past, or its
+     * burst length is not positive
+     */
+    public void submit(long arrivalTime, int burstLength) throws ImproperArguments {
+        if (arrivalTime < this.time || arrivalTime < this.lastArrival) {
+            throw new ImproperArguments("Process arrives at " + arrivalTime +
+                    ", which is earlier than the last arrival or the current time!");
+        }
+        if (arrivalTime > Integer.MAX_VALUE) {
+            throw new ImproperArguments("Arrival time " + arrivalTime + " is too late!");
+        }
+        if (burstLength <= 0) {
+            throw new ImproperArguments("Burst lengths must be positive!");
+        }
+        if (this.nextPID == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Out of process IDs");
+        }
+        Process p = new Process(this.nextPID++, (int) arrivalTime, burstLength);
+        p.setState(ProcessState.NEW);
+        this.arrivals.addLast(p);
+        this.lastArrival = arrivalTime;
+        this.submitted++;
+    }
+
+    /**
+     * Moves the clock forward by the given amount of time, scheduling and executing
+     * processes along the way.
+     * @param delta - the amount of time to simulate
+     */
+    public void advance(long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("The clock can't go backwards");
+        }
+        advanceTo(this.time + delta);
+    }
+
+    /**
+     * Moves the clock forward to the given time, scheduling and executing processes
+     * along the way. Processes that arrive at exactly that time have not been
+     * scheduled yet when it returns, so more of them can still be submitted.
+     * @param time - the time to stop the clock at
+     */
+    public void advanceTo(long time) {
+        if (time < this.time) {
+            throw new IllegalArgumentException("The clock can't go backwards");
+        }
+        run(time);
+    }
+
+    /**
+     * Runs the simulation until every process submitted so far has terminated. The
+     * clock stops at the time the last one terminated, unless it was already past it.
+     */
+    public void finish() {
+        run(Long.MAX_VALUE);
+    }
+
+    // Schedules and executes processes until the clock reaches the given time, or,
+    // if it is Long.MAX_VALUE, until there is nothing left to do.
+    private void run(long until) {
+        boolean preemptive = this.type == SchedulingType.SRTF;
+        long time = this.time;
+
+        while (time < until) {
+            if (time >= this.nextCheckpoint) {
+                writeDueCheckpoint(time);
+            }
+            boolean arriving = !this.arrivals.isEmpty()
+                    && this.arrivals.get(0).getArrivalTime() <= time;
+            // A preempted process goes back onto the ready queue before any new
+            // arrivals are added.
+            Process preempted = null;
+            if (preemptive && arriving && this.running != null) {
+                preempted = this.running;
+                preempted.enterReadyQueue(time);
+                readyQueue.add(preempted);
+                this.running = null;
+                if (this.stats != null) {
+                    this.stats.queueOperation();
+                }
+            }
+            // Put every process that has arrived by now on the ready queue
+            while (!this.arrivals.isEmpty()
+                    && this.arrivals.get(0).getArrivalTime() <= time) {
+                Process p = this.arrivals.pollFirst();
+                p.enterReadyQueue(p.getArrivalTime());
+                readyQueue.add(p);
+                if (this.stats != null) {
+                    this.stats.admitted();
+                    this.stats.queueOperation();
+                }
+            }
+            if (this.running == null) {
+                // Nothing to run, so the CPU is idle until the next arrival
+                if (readyQueue.isEmpty()) {
+                    long next = this.arrivals.isEmpty() ? until
+                            : Math.min(this.arrivals.get(0).getArrivalTime(), until);
+                    if (next == Long.MAX_VALUE) {
+                        break;
+                    }
+                    if (this.stats != null) {
+                        this.stats.idle(next - time);
+                    }
+                    time = next;
+                    continue;
+                }
+                this.running = readyQueue.poll();
+                this.running.dispatch(time);
+                if (this.stats != null) {
+                    this.stats.queueOperation();
+                    if (preempted != null && preempted != this.running) {
+                        this.stats.preempted();
+                    }
+                    this.stats.sample(time, readyQueue.size());
+                }
+            }
+
+            // Execute until the next event: termination, a possible preemption, or
+            // the time the clock stops at
+            int runFor = (int) Math.min(this.running.getCPUTime(), until - time);
+            if (preemptive && !this.arrivals.isEmpty()) {
+                runFor = (int) Math.min(runFor,
+                        this.arrivals.get(0).getArrivalTime() - time);
+            }
+            this.running.execute(runFor);
+            if (this.timeline != null) {
+                this.timeline.append(this.running.getID(), time, runFor);
+            }
+            this.busyTime += runFor;
+            time += runFor;
+
+            if (this.running.getCPUTime() == 0) {
+                this.running.terminate(time);
+                retire(this.running);
+                this.running = null;
+            }
+        }
+        this.time = time;
+        if (this.stats != null) {
+            this.stats.sample(time, readyQueue.size());
+        }
+    }
+
+    // Records the times of a terminated process. The process is not kept.
+    private void retire(Process p) {
+        this.waitingTimes.record(p.getWaitingTime());
+        this.turnaroundTimes.record(p.getTurnaroundTime());
+        this.responseTimes.record(p.getResponseTime());
+    }
+
+    /**
+     * Turns on instrumentation: the simulation will update the given counters as it
+     * runs, so they can be watched from another thread while a long trace is being
+     * replayed. Instrumentation is off by default.
+     * @param stats - the counters to update, or null to turn instrumentation off
+     */
+    public void setStats(SimulationStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Getter for the instrumentation counters
+     * @return SimulationStats - the counters, or null if instrumentation is off
+     */
+    public SimulationStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * Getter for the number of processes that have terminated
+     * @return long - the number of processes completed
+     */
+    public long getProcessesCompleted() {
+        return this.waitingTimes.getCount();
+    }
+
+    /**
+     * Getter for the current time of the simulation. Once every process has been
+     * simulated, that is the time the last one terminated.
+     * @return long - the current time
+     */
+    public long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Returns the number of processes that have been submitted but have not yet
+     * terminated: those that have not arrived yet, those on the ready queue, and the
+     * one holding the CPU.
+     * @return int - the number of processes in the system
+     */
+    public int getProcessesInSystem() {
+        return this.arrivals.size() + this.readyQueue.size()
+                + (this.running == null ? 0 : 1);
+    }
+
+    /**
+     * Returns the fraction of the time so far that the CPU spent executing processes.
+     * @return double - the CPU utilization, between 0 and 1
+     */
+    public double getCpuUtilization() {
+        return this.time == 0 ? 0 : (double) this.busyTime / this.time;
+    }
+
+    /**
+     * Returns the average waiting time of every process that has terminated.
+     * @return double - the Avg. Waiting Time.
+     */
+    public double getAvgWaitTime() {
+        return this.waitingTimes.getMean();
+    }
+
+    /**
+     * Returns the average turnaround time of every process that has terminated.
+     * @return double - the Avg. Turnaround Time.
+     */
+    public double getAvgTurnaroundTime() {
+        return this.turnaroundTimes.getMean();
+    }
+
+    /**
+     * Returns the average response time of every process that has terminated.
+     * @return double - the Avg. Response Time.
+     */
+    public double getAvgResponseTime() {
+        return this.responseTimes.getMean();
+    }
+
+    @Override
+    public LatencyHistogram getWaitingTimeHistogram() {
+        return this.waitingTimes;
+    }
+
+    @Override
+    public LatencyHistogram getTurnaroundTimeHistogram() {
+        return this.turnaroundTimes;
+    }
+
+    @Override
+    public LatencyHistogram getResponseTimeHistogram() {
+        return this.responseTimes;
+    }
+
+    /**
+     * Will return the schedule of execution, if it was recorded.
+     * @return Timeline - the schedule of execution, or null if not recorded
+     */
+    public Timeline getTimeline() {
+        return this.timeline;
+    }
+}
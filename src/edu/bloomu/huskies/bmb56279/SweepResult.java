@@ -0,0 +1,107 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * The aggregated result of one cell of a ParameterSweep: the parameters that define the
+ * cell, and summaries of the waiting, turnaround and response times of every process in
+ * every run of that cell.
+ *
+ * @author Brett Bernardi
+ */
+public final class SweepResult {
+    private final double arrivalRate;
+    private final BurstDistribution burstDistribution;
+    private final SchedulingType type;
+    private final int runs;
+    private final MetricSummary waitingTime;
+    private final MetricSummary turnaroundTime;
+    private final MetricSummary responseTime;
+
+    /**
+     * Constructor for the SweepResult class.
+     * @param arrivalRate - mean number of arrivals per unit of time in this cell
+     * @param burstDistribution - the burst distribution in this cell
+     * @param type - the type of scheduling in this cell
+     * @param runs - the number of runs aggregated
+     * @param waitingTime - summary of the waiting times
+     * @param turnaroundTime - summary of the turnaround times
+     * @param responseTime - summary of the response times
+     */
+    public SweepResult(double arrivalRate, BurstDistribution burstDistribution,
+                       SchedulingType type, int runs, MetricSummary waitingTime,
+                       MetricSummary turnaroundTime, MetricSummary responseTime) {
+        this.arrivalRate = arrivalRate;
+        this.burstDistribution = burstDistribution;
+        this.type = type;
+        this.runs = runs;
+        this.waitingTime = waitingTime;
+        this.turnaroundTime = turnaroundTime;
+        this.responseTime = responseTime;
+    }
+
+    /**
+     * Getter for the mean number of arrivals per unit of time
+     * @return double - the arrival rate
+     */
+    public double getArrivalRate() {
+        return this.arrivalRate;
+    }
+
+    /**
+     * Getter for the burst distribution
+     * @return BurstDistribution - the burst distribution
+     */
+    public BurstDistribution getBurstDistribution() {
+        return this.burstDistribution;
+    }
+
+    /**
+     * Getter for the type of scheduling
+     * @return SchedulingType - the type of scheduling
+     */
+    public SchedulingType getType() {
+        return this.type;
+    }
+
+    /**
+     * Getter for the number of runs aggregated
+     * @return int - the number of runs
+     */
+    public int getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * Getter for the summary of the waiting times
+     * @return MetricSummary - the waiting times
+     */
+    public MetricSummary getWaitingTime() {
+        return this.waitingTime;
+    }
+
+    /**
+     * Getter for the summary of the turnaround times
+     * @return MetricSummary - the turnaround times
+     */
+    public MetricSummary getTurnaroundTime() {
+        return this.turnaroundTime;
+    }
+
+    /**
+     * Getter for the summary of the response times
+     * @return MetricSummary - the response times
+     */
+    public MetricSummary getResponseTime() {
+        return this.responseTime;
+    }
+
+    /**
+     * Overrides toString().
+     * @return String - representation of the result
+     */
+    @Override
+    public String toString() {
+        return "rate " + this.arrivalRate + " " + this.burstDistribution + " " + this.type
+                + " | wait " + this.waitingTime + " | turnaround " + this.turnaroundTime
+                + " | response " + this.responseTime;
+    }
+}
@@ -0,0 +1,197 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.Arrays;
+
+/**
+ * A run-length encoded Gantt chart of a simulation. Each entry (segment) records the
+ * int ID of a process, the time it started executing, and the number of units of time
+ * it executed without interruption. Consecutive units of time executed by the same
+ * process are merged into one segment as they are appended, so the memory used is
+ * proportional to the number of context switches, not to the total execution time.
+ * Times are stored as longs, so a timeline can cover more than Integer.MAX_VALUE units
+ * of time.
+ *
+ * Units of time in which the CPU is idle are not recorded; they show up as a gap
+ * between the end of one segment and the start of the next. Time spent switching from
+ * one process to another is recorded as a segment with the CONTEXT_SWITCH ID, and is
+ * not counted as execution time.
+ *
+ * A timeline can be made read-only once it is finished, so it can be shared: after
+ * that, trying to append to it throws an IllegalStateException.
+ *
+ * @author Brett Bernardi
+ */
+public class Timeline {
+    // The ID of a segment in which the CPU was switching between processes
+    public static final int CONTEXT_SWITCH = -1;
+
+    // parallel arrays, one entry per segment
+    private int[] ids;
+    private long[] starts;
+    private long[] lengths;
+    // number of segments
+    private int size;
+    // sum of the lengths of all segments in which a process executed
+    private long totalExecutionTime;
+    // sum of the lengths of all context switch segments
+    private long totalSwitchTime;
+    // true once the timeline is read-only
+    private boolean frozen;
+
+    /**
+     * Constructor for an empty timeline.
+     */
+    public Timeline() {
+        this.ids = new int[16];
+        this.starts = new long[16];
+        this.lengths = new long[16];
+        this.size = 0;
+        this.totalExecutionTime = 0;
+        this.totalSwitchTime = 0;
+    }
+
+    /**
+     * Records that a process executed for a number of units of time starting at the
+     * given time. If the last segment belongs to the same process and ends exactly
+     * where this one starts, it is extended instead of adding a new segment.
+     * @param id - the ID of the process that executed, or CONTEXT_SWITCH
+     * @param start - the time execution started
+     * @param length - the number of units of time executed
+     * @throws IllegalStateException - thrown if the timeline is read-only
+     */
+    public void append(int id, long start, long length) {
+        if (this.frozen) {
+            throw new IllegalStateException("A read-only timeline can't be changed");
+        }
+        if (length <= 0) {
+            return;
+        }
+        if (id == CONTEXT_SWITCH) {
+            this.totalSwitchTime += length;
+        } else {
+            this.totalExecutionTime += length;
+        }
+        int last = this.size - 1;
+        if (last >= 0 && this.ids[last] == id
+                && this.starts[last] + this.lengths[last] == start) {
+            this.lengths[last] += length;
+            return;
+        }
+        if (this.size == this.ids.length) {
+            int capacity = this.size * 2;
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.lengths = Arrays.copyOf(this.lengths, capacity);
+        }
+        this.ids[this.size] = id;
+        this.starts[this.size] = start;
+        this.lengths[this.size] = length;
+        this.size++;
+    }
+
+    // Makes the timeline read-only, so it can be shared. It can't be made writable
+    // again.
+    void freeze() {
+        this.frozen = true;
+    }
+
+    /**
+     * Returns true if the timeline is read-only.
+     * @return boolean - true if the timeline can't be changed
+     */
+    public boolean isReadOnly() {
+        return this.frozen;
+    }
+
+    /**
+     * Getter for the number of segments
+     * @return int - the number of segments
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the ID of the process that executed during a segment
+     * @param i - the index of the segment
+     * @return int - the process ID
+     */
+    public int getId(int i) {
+        return this.ids[i];
+    }
+
+    /**
+     * Getter for the time a segment started
+     * @param i - the index of the segment
+     * @return long - the start time
+     */
+    public long getStart(int i) {
+        return this.starts[i];
+    }
+
+    /**
+     * Getter for the length of a segment
+     * @param i - the index of the segment
+     * @return long - the number of units of time executed
+     */
+    public long getLength(int i) {
+        return this.lengths[i];
+    }
+
+    /**
+     * Getter for the total number of units of time executed across all segments
+     * @return long - the total execution time
+     */
+    public long getTotalExecutionTime() {
+        return this.totalExecutionTime;
+    }
+
+    /**
+     * Getter for the total number of units of time spent switching between processes
+     * @return long - the total context switch time
+     */
+    public long getTotalSwitchTime() {
+        return this.totalSwitchTime;
+    }
+
+    /**
+     * Formats the timeline for printing: each segment is written as the name of its
+     * process followed by the number of units of time it executed, separated by spaces.
+     * @param names - the names to print the processes with
+     * @return String - the formatted timeline
+     */
+    public String format(ProcessNames names) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.size; i++) {
+            builder.append(names.nameOf(this.ids[i])).append(this.lengths[i]).append(' ');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Expands the timeline into one char per unit of time executed, the way the
+     * schedule was originally stored: process 0 is 'A', process 1 is 'B', and so on.
+     * Only meant for small simulations: the array is as large as the total execution
+     * time, and a char can only hold the first 65,470 or so process IDs. Context
+     * switches are left out.
+     * @return char[] - the schedule of execution
+     * @throws IllegalStateException - thrown if a process ID doesn't fit in a char
+     */
+    public char[] toCharArray() {
+        char[] schedule = new char[Math.toIntExact(this.totalExecutionTime)];
+        int index = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.ids[i] == CONTEXT_SWITCH) {
+                continue;
+            }
+            if (this.ids[i] > Character.MAX_VALUE - 'A') {
+                throw new IllegalStateException("Process " + this.ids[i] + " can't be " +
+                        "shown as a char; use the timeline instead");
+            }
+            int length = (int) this.lengths[i];
+            Arrays.fill(schedule, index, index + length, (char) ('A' + this.ids[i]));
+            index += length;
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,179 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * Holds the processes that are blocked on I/O until their wake-up time, in a
+ * hierarchical timer wheel. Level 0 has one slot for each of the next 64 units of
+ * time, level 1 one slot for each of the next 64 stretches of 64 units, and so on, so
+ * eleven levels cover every possible time. A process goes on the lowest level whose
+ * slot can tell its wake-up time apart from the current time of the wheel. When the
+ * wheel's time reaches one of the higher slots, that slot is cascaded: its processes
+ * move down to the lower levels, each one at most once per level.
+ *
+ * Adding a process is O(1), and so is finding the next slot with a process in it,
+ * since each level keeps a bitmap of its non-empty slots. Unlike scanning a list of
+ * blocked processes every unit of time, the cost does not depend on how many
+ * processes are blocked or on how long their I/O takes.
+ *
+ * @author Brett Bernardi
+ */
+class TimerWheel {
+    // number of bits of the time each level covers, and so 64 slots per level
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    // the slots of each level, created the first time they are used
+    private final ProcessRing[][] slots;
+    // bit i of occupied[level] is set if slot i of that level is not empty
+    private final long[] occupied;
+    // the processes whose wake-up time is the current time, in the order they woke up
+    private final ProcessRing expired;
+    // The current time of the wheel. Every process on the wheel wakes up after it,
+    // except the expired ones, which wake up exactly at it.
+    private long now;
+    // number of processes on the wheel, including the expired ones
+    private int size;
+    // the earliest wake-up time, or -1 if it has to be looked up again
+    private long nextWakeTime;
+
+    /**
+     * Constructor for an empty wheel starting at time 0.
+     */
+    TimerWheel() {
+        this.slots = new ProcessRing[LEVELS][];
+        this.occupied = new long[LEVELS];
+        this.expired = new ProcessRing();
+        this.now = 0;
+        this.size = 0;
+        this.nextWakeTime = Long.MAX_VALUE;
+    }
+
+    /**
+     * Adds a blocked process to the wheel. It comes back out of poll() once its
+     * wake-up time has been reached.
+     * @param p - a process in the waiting state
+     */
+    void add(Process p) {
+        long wakeTime = p.getWakeTime();
+        if (wakeTime <= this.now) {
+            throw new IllegalArgumentException("Process " + p.getID() + " would wake " +
+                    "up at " + wakeTime + ", but the wheel is already at " + this.now);
+        }
+        insert(p, wakeTime);
+        this.size++;
+        if (this.nextWakeTime >= 0) {
+            this.nextWakeTime = Math.min(this.nextWakeTime, wakeTime);
+        }
+    }
+
+    /**
+     * Returns the earliest wake-up time of any process on the wheel.
+     * @return long - the next wake-up time, or Long.MAX_VALUE if the wheel is empty
+     */
+    long nextWakeTime() {
+        if (this.nextWakeTime < 0) {
+            this.nextWakeTime = findNextWakeTime();
+        }
+        return this.nextWakeTime;
+    }
+
+    /**
+     * Removes and returns a process whose wake-up time has been reached, advancing the
+     * wheel as needed. Processes come out in order of wake-up time, and processes with
+     * the same wake-up time in the order they were added.
+     * @param time - the current time; it must never go backwards between calls
+     * @return Process - a process that has woken up by the given time, or null if none
+     */
+    Process poll(long time) {
+        while (this.expired.isEmpty()) {
+            if (this.size == 0 || nextWakeTime() > time) {
+                return null;
+            }
+            int level = lowestOccupiedLevel();
+            int slot = Long.numberOfTrailingZeros(this.occupied[level]);
+            // Move the wheel to the start of the slot, then spread its processes over
+            // the levels below, or onto the expired list
+            long mask = BITS * (level + 1) >= Long.SIZE ? 0
+                    : -1L << (BITS * (level + 1));
+            this.now = (this.now & mask) | ((long) slot << (BITS * level));
+            ProcessRing ring = this.slots[level][slot];
+            this.occupied[level] &= ~(1L << slot);
+            while (!ring.isEmpty()) {
+                Process p = ring.pollFirst();
+                insert(p, p.getWakeTime());
+            }
+            this.nextWakeTime = -1;
+        }
+        this.size--;
+        return this.expired.pollFirst();
+    }
+
+    /**
+     * Returns true if no process is on the wheel.
+     * @return boolean - true if empty
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of processes on the wheel.
+     * @return int - the number of blocked processes
+     */
+    int size() {
+        return this.size;
+    }
+
+    // Puts a process on the slot its wake-up time belongs to, relative to the current
+    // time of the wheel: the level is the highest group of bits in which the two
+    // times differ.
+    private void insert(Process p, long wakeTime) {
+        if (wakeTime == this.now) {
+            this.expired.addLast(p);
+            return;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(wakeTime ^ this.now))
+                / BITS;
+        int slot = (int) (wakeTime >>> (BITS * level)) & (SLOTS - 1);
+        if (this.slots[level] == null) {
+            this.slots[level] = new ProcessRing[SLOTS];
+        }
+        if (this.slots[level][slot] == null) {
+            this.slots[level][slot] = new ProcessRing();
+        }
+        this.slots[level][slot].addLast(p);
+        this.occupied[level] |= 1L << slot;
+    }
+
+    // Returns the lowest level that has a process on it. The wheel must not be empty.
+    private int lowestOccupiedLevel() {
+        int level = 0;
+        while (this.occupied[level] == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    // Looks up the earliest wake-up time. Every process on a level wakes up before
+    // any process on a higher level, and on level 0 the slot gives the exact time;
+    // on a higher level the processes in the first slot have to be compared.
+    private long findNextWakeTime() {
+        if (!this.expired.isEmpty()) {
+            return this.now;
+        }
+        if (this.size == 0) {
+            return Long.MAX_VALUE;
+        }
+        int level = lowestOccupiedLevel();
+        int slot = Long.numberOfTrailingZeros(this.occupied[level]);
+        if (level == 0) {
+            return (this.now & -SLOTS) | slot;
+        }
+        ProcessRing ring = this.slots[level][slot];
+        long earliest = Long.MAX_VALUE;
+        for (int i = 0; i < ring.size(); i++) {
+            earliest = Math.min(earliest, ring.get(i).getWakeTime());
+        }
+        return earliest;
+    }
+}
@@ -0,0 +1,156 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An ArrivalSource that reads a work load from a text trace file. The file holds the
+ * same (Arrival Time, CPU Burst Length) pairs a user would type into Main, separated by
+ * any whitespace (spaces, tabs or line breaks), sorted by arrival time.
+ *
+ * The file is memory-mapped one window at a time, and numbers are parsed straight from
+ * the mapped bytes, so no String is ever created per token and only one window is
+ * mapped at a time. A trace can therefore be many times larger than the heap, and is
+ * handed to the scheduler one process at a time as it is read.
+ *
+ * @author Brett Bernardi
+ */
+public class TraceReader implements ArrivalSource, AutoCloseable {
+    // size of each mapped window of the file
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    // the currently mapped window, and the file position it starts at
+    private MappedByteBuffer window;
+    private long windowStart;
+    // the current process
+    private int arrivalTime;
+    private int burstLength;
+    // number of processes read so far
+    private long count;
+
+    /**
+     * Constructor that opens a trace file for reading.
+     * @param path - the path of the trace file
+     * @throws IOException - thrown if the file can't be opened or mapped
+     */
+    public TraceReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = this.channel.size();
+        this.windowStart = 0;
+        this.window = map(0);
+        this.arrivalTime = 0;
+        this.count = 0;
+    }
+
+    @Override
+    public boolean advance() throws ImproperArguments {
+        long arrival = nextNumber();
+        if (arrival < 0) {
+            return false;
+        }
+        long burst = nextNumber();
+        if (burst < 0) {
+            throw new ImproperArguments("Every Process needs an arrival time and a CPU " +
+                    "burst length! Process " + this.count + " has no burst length.");
+        }
+        if (burst == 0) {
+            throw new ImproperArguments("Burst lengths must be positive! Process "
+                    + this.count + " has a burst length of 0.");
+        }
+        if (arrival < this.arrivalTime) {
+            throw new ImproperArguments("Trace must be sorted by arrival time! Process "
+                    + this.count + " arrives at " + arrival + ", before process "
+                    + (this.count - 1) + ".");
+        }
+        this.arrivalTime = (int) arrival;
+        this.burstLength = (int) burst;
+        this.count++;
+        return true;
+    }
+
+    @Override
+    public int getArrivalTime() {
+        return this.arrivalTime;
+    }
+
+    @Override
+    public int getBurstLength() {
+        return this.burstLength;
+    }
+
+    /**
+     * Getter for the number of processes read so far
+     * @return long - the number of processes read
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Closes the trace file.
+     * @throws IOException - thrown if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    // Parses the next whitespace-separated non-negative whole number straight from the
+    // mapped bytes. Returns -1 at the end of the file.
+    private long nextNumber() throws ImproperArguments {
+        int b = nextByte();
+        while (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+            b = nextByte();
+        }
+        if (b < 0) {
+            return -1;
+        }
+        long value = 0;
+        int digits = 0;
+        while (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new ImproperArguments("Number too large in trace at process "
+                        + this.count + "!");
+            }
+            digits++;
+            b = nextByte();
+        }
+        if (digits == 0 || (b >= 0 && b != ' ' && b != '\t' && b != '\n' && b != '\r')) {
+            throw new ImproperArguments("Arrival times and burst lengths must be whole " +
+                    "numbers! Bad character '" + (char) b + "' at process "
+                    + this.count + ".");
+        }
+        return value;
+    }
+
+    // Returns the next byte of the file, mapping the next window when the current one
+    // runs out. Returns -1 at the end of the file.
+    private int nextByte() {
+        if (!this.window.hasRemaining()) {
+            long next = this.windowStart + this.window.capacity();
+            if (next >= this.fileSize) {
+                return -1;
+            }
+            this.windowStart = next;
+            this.window = map(next);
+        }
+        return this.window.get() & 0xff;
+    }
+
+    // Maps the window of the file that starts at the given position.
+    private MappedByteBuffer map(long position) {
+        try {
+            return this.channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(WINDOW_SIZE, this.fileSize - position));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package edu.bloomu.huskies.bmb56279;
+
+/**
+ * A class that implements the Comparator interface that will then be used by the run
+ * queue of the Completely Fair Scheduler. The process with the smallest virtual
+ * runtime, the one that has had the least of its fair share of the CPU, is always the
+ * first. Processes with the same virtual runtime are ordered by arrival time, then by
+ * process ID.
+ *
+ * The virtual runtime of a process must not change while it is in the run queue, or
+ * the tree would be out of order. The scheduler only charges a process for its CPU
+ * time once it has been taken off the run queue.
+ *
+ * @author Brett Bernardi
+ */
+class VruntimeComparator extends ProcessComparator {
+    @Override
+    long primaryKey(Process p) {
+        return p.getVruntime();
+    }
+}
@@ -0,0 +1,232 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.util.Arrays;
+
+/**
+ * An immutable work load of processes: the arrival time and CPU burst length of each
+ * process, in the order they were given. A process may also alternate between CPU
+ * bursts and I/O bursts, in which case its whole burst sequence is kept: CPU, I/O,
+ * CPU, ..., always starting and ending with a CPU burst. A process may also be given a
+ * priority; every other process has Process.DEFAULT_PRIORITY. User input is parsed
+ * into a Workload once, and the same Workload can then be shared by any number of
+ * Scheduler objects, even ones running on different threads, since nothing can
+ * change it. Each Scheduler creates its own Process objects from it.
+ *
+ * @author Brett Bernardi
+ */
+public final class Workload {
+    // the arrival time of each process
+    private final int[] arrivalTimes;
+    // the (first) CPU burst length of each process
+    private final int[] burstLengths;
+    // The alternating CPU and I/O burst lengths of each process, or null if no
+    // process does any I/O.
+    private final int[][] bursts;
+    // The priority of each process, or null if every process has the default one.
+    private final int[] priorities;
+
+    /**
+     * Constructor that creates a work load from parallel arrays of arrival times and
+     * burst lengths. The arrays are copied, so later changes to them do not affect
+     * this work load.
+     * @param arrivalTimes - the arrival time of each process
+     * @param burstLengths - the CPU burst length of each process
+     */
+    public Workload(int[] arrivalTimes, int[] burstLengths) {
+        if (arrivalTimes.length != burstLengths.length) {
+            throw new IllegalArgumentException("Every Process needs an arrival time " +
+                    "and a CPU burst length!");
+        }
+        this.arrivalTimes = arrivalTimes.clone();
+        this.burstLengths = burstLengths.clone();
+        this.bursts = null;
+        this.priorities = null;
+    }
+
+    /**
+     * Constructor that creates a work load of processes that may do I/O. Each process
+     * has a sequence of burst lengths that alternates between CPU and I/O bursts,
+     * starting and ending with a CPU burst, so every sequence has an odd length. The
+     * arrays are copied, so later changes to them do not affect this work load.
+     * @param arrivalTimes - the arrival time of each process
+     * @param bursts - the alternating CPU and I/O burst lengths of each process
+     */
+    public Workload(int[] arrivalTimes, int[][] bursts) {
+        this(arrivalTimes, bursts, null);
+    }
+
+    /**
+     * Constructor that creates a work load of processes that may do I/O and have
+     * priorities. See the constructor above for the burst lengths. The arrays are
+     * copied, so later changes to them do not affect this work load.
+     * @param arrivalTimes - the arrival time of each process
+     * @param bursts - the alternating CPU and I/O burst lengths of each process
+     * @param priorities - the priority of each process, from 0 (the most urgent) to
+     * Process.PRIORITY_LEVELS - 1, or null to give every process the default one
+     */
+    public Workload(int[] arrivalTimes, int[][] bursts, int[] priorities) {
+        if (arrivalTimes.length != bursts.length
+                || (priorities != null && priorities.length != bursts.length)) {
+            throw new IllegalArgumentException("Every Process needs an arrival time " +
+                    "and a CPU burst length!");
+        }
+        this.arrivalTimes = arrivalTimes.clone();
+        this.burstLengths = new int[bursts.length];
+        boolean hasIO = false;
+        for (int i = 0; i < bursts.length; i++) {
+            if (bursts[i].length % 2 == 0) {
+                throw new IllegalArgumentException("Every Process must start and end " +
+                        "with a CPU burst!");
+            }
+            this.burstLengths[i] = bursts[i][0];
+            hasIO |= bursts[i].length > 1;
+        }
+        if (hasIO) {
+            this.bursts = new int[bursts.length][];
+            for (int i = 0; i < bursts.length; i++) {
+                this.bursts[i] = bursts[i].clone();
+            }
+        } else {
+            this.bursts = null;
+        }
+        if (priorities != null) {
+            for (int priority : priorities) {
+                if (priority < 0 || priority >= Process.PRIORITY_LEVELS) {
+                    throw new IllegalArgumentException("Priorities must be between 0 " +
+                            "and " + (Process.PRIORITY_LEVELS - 1) + "!");
+                }
+            }
+            this.priorities = priorities.clone();
+        } else {
+            this.priorities = null;
+        }
+    }
+
+    /**
+     * Parses a work load of processes represented in a String array of user input.
+     * Each process takes the form: (Arrival Time, CPU Burst Length). A process that
+     * does I/O gives its burst lengths separated by commas instead, alternating between
+     * CPU and I/O bursts: "0 5,3,4" arrives at 0, runs for 5, does I/O for 3 and then
+     * runs for 4. A process can be given a priority by following its burst lengths
+     * with "@" and the priority: "0 5@3" or "0 5,3,4@3". Will throw a custom Exception
+     * (ImproperArguments) if there are not an even number of arguments, if an argument
+     * is not a whole number, if an arrival time is negative, if a burst length is not
+     * positive, if a burst sequence does not end with a CPU burst, or if a priority
+     * is out of range.
+     * @param workLoad - a String[] array of user input
+     * @return Workload - the parsed work load
+     * @throws ImproperArguments - thrown if arguments are invalid
+     */
+    public static Workload parse(String[] workLoad) throws ImproperArguments {
+        if (workLoad.length % 2 != 0) {
+            throw new ImproperArguments("Every Process needs an arrival time and a CPU " +
+                    "burst length!. Try again!");
+        }
+        int[] arrivalTimes = new int[workLoad.length / 2];
+        int[][] bursts = new int[workLoad.length / 2][];
+        int[] priorities = null;
+        try {
+            for (int i = 0; i < arrivalTimes.length; i++) {
+                arrivalTimes[i] = Integer.parseInt(workLoad[2 * i]);
+                if (arrivalTimes[i] < 0) {
+                    throw new ImproperArguments("Arrival times can't be negative and " +
+                            "burst lengths must be positive!. Try again!");
+                }
+                String token = workLoad[2 * i + 1];
+                int at = token.indexOf('@');
+                if (at >= 0) {
+                    if (priorities == null) {
+                        priorities = new int[arrivalTimes.length];
+                        Arrays.fill(priorities, Process.DEFAULT_PRIORITY);
+                    }
+                    priorities[i] = Integer.parseInt(token.substring(at + 1));
+                    if (priorities[i] < 0 || priorities[i] >= Process.PRIORITY_LEVELS) {
+                        throw new ImproperArguments("Priorities must be between 0 and " +
+                                (Process.PRIORITY_LEVELS - 1) + "!. Try again!");
+                    }
+                    token = token.substring(0, at);
+                }
+                String[] burstTokens = token.split(",", -1);
+                if (burstTokens.length % 2 == 0) {
+                    throw new ImproperArguments("Every Process must start and end " +
+                            "with a CPU burst!. Try again!");
+                }
+                bursts[i] = new int[burstTokens.length];
+                for (int j = 0; j < burstTokens.length; j++) {
+                    bursts[i][j] = Integer.parseInt(burstTokens[j]);
+                    if (bursts[i][j] <= 0) {
+                        throw new ImproperArguments("Arrival times can't be negative " +
+                                "and burst lengths must be positive!. Try again!");
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new ImproperArguments("Arrival times and burst lengths must be whole " +
+                    "numbers!. Try again!");
+        }
+        return new Workload(arrivalTimes, bursts, priorities);
+    }
+
+    /**
+     * Getter for the number of processes in the work load
+     * @return int - the number of processes
+     */
+    public int size() {
+        return this.arrivalTimes.length;
+    }
+
+    /**
+     * Getter for the arrival time of a process
+     * @param i - the index of the process
+     * @return int - Arrival Time
+     */
+    public int getArrivalTime(int i) {
+        return this.arrivalTimes[i];
+    }
+
+    /**
+     * Getter for the burst length of a process. For a process that does I/O, this is
+     * the length of its first CPU burst.
+     * @param i - the index of the process
+     * @return int - Burst Length
+     */
+    public int getBurstLength(int i) {
+        return this.burstLengths[i];
+    }
+
+    /**
+     * Returns true if any process in the work load has an I/O burst.
+     * @return boolean - true if some process does I/O
+     */
+    public boolean hasIO() {
+        return this.bursts != null;
+    }
+
+    /**
+     * Returns true if any process in the work load was given a priority.
+     * @return boolean - true if some process has a priority
+     */
+    public boolean hasPriorities() {
+        return this.priorities != null;
+    }
+
+    /**
+     * Getter for the priority of a process
+     * @param i - the index of the process
+     * @return int - the priority, Process.DEFAULT_PRIORITY if none was given
+     */
+    public int getPriority(int i) {
+        return this.priorities == null ? Process.DEFAULT_PRIORITY : this.priorities[i];
+    }
+
+    /**
+     * Getter for the alternating CPU and I/O burst lengths of a process. A process
+     * without I/O has a single CPU burst.
+     * @param i - the index of the process
+     * @return int[] - a copy of the burst lengths, starting with a CPU burst
+     */
+    public int[] getBursts(int i) {
+        return this.bursts == null ? new int[] {this.burstLengths[i]}
+                : this.bursts[i].clone();
+    }
+}
@@ -0,0 +1,318 @@
+package edu.bloomu.huskies.bmb56279;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * A class that generates synthetic work loads instead of reading them from user input.
+ * Arrival times are drawn from an ArrivalProcess with the given mean rate of arrivals
+ * per unit of time, and burst lengths from a BurstDistribution with the given mean.
+ *
+ * The processes are generated in blocks of BLOCK_SIZE. Each block has its own source
+ * of randomness, split in turn from one seeded with the generator's seed, and starts
+ * its arrival times where the previous block's end. This makes generation reproducible
+ * and lets it happen in several ways that all produce exactly the same processes for
+ * the same seed:
+ *      - generate() builds a whole Workload in memory
+ *      - generateParallel() builds it with every core, one block per task; the times
+ *        within each block are then shifted by the total length of the blocks before
+ *        it, so the result doesn't depend on how many threads took part
+ *      - stream() returns an ArrivalSource that generates one process at a time, to
+ *        feed a StreamingScheduler or a BinaryWorkloadWriter without ever holding the
+ *        work load in memory
+ *
+ * The Pareto and MMPP arrival processes have parameters besides their mean rate, which
+ * can be changed with setters before generating; see each setter for its default.
+ *
+ * @author Brett Bernardi
+ */
+public class WorkloadGenerator {
+    // number of processes generated from each source of randomness
+    static final int BLOCK_SIZE = 1 << 12;
+
+    // the random process arrival times are drawn from
+    private final ArrivalProcess arrivalProcess;
+    // mean number of arrivals per unit of time
+    private final double arrivalRate;
+    // the distribution burst lengths are drawn from
+    private final BurstDistribution burstDistribution;
+    // mean burst length
+    private final double meanBurst;
+    // the seed of the source of randomness every block's is split from
+    private final long seed;
+    // shape of the Pareto distribution of the time between arrivals
+    private double paretoShape;
+    // ratio of the high rate of arrivals to the low one, and mean time spent at each
+    // rate before switching to the other, for MMPP
+    private double burstRatio;
+    private double meanSojourn;
+
+    /**
+     * Constructor for a WorkloadGenerator with Poisson arrivals.
+     * @param arrivalRate - mean number of arrivals per unit of time
+     * @param burstDistribution - the distribution burst lengths are drawn from
+     * @param meanBurst - mean burst length
+     * @param seed - the seed for the source of randomness
+     */
+    public WorkloadGenerator(double arrivalRate, BurstDistribution burstDistribution,
+                             double meanBurst, long seed) {
+        this(ArrivalProcess.POISSON, arrivalRate, burstDistribution, meanBurst, seed);
+    }
+
+    /**
+     * Constructor for the WorkloadGenerator class.
+     * @param arrivalProcess - the random process arrival times are drawn from
+     * @param arrivalRate - mean number of arrivals per unit of time
+     * @param burstDistribution - the distribution burst lengths are drawn from
+     * @param meanBurst - mean burst length
+     * @param seed - the seed for the source of randomness
+     */
+    public WorkloadGenerator(ArrivalProcess arrivalProcess, double arrivalRate,
+                             BurstDistribution burstDistribution, double meanBurst,
+                             long seed) {
+        if (arrivalRate <= 0 || meanBurst < 1) {
+            throw new IllegalArgumentException("Arrival rate must be positive and mean " +
+                    "burst length at least one");
+        }
+        this.arrivalProcess = arrivalProcess;
+        this.arrivalRate = arrivalRate;
+        this.burstDistribution = burstDistribution;
+        this.meanBurst = meanBurst;
+        this.seed = seed;
+        this.paretoShape = 1.5;
+        this.burstRatio = 10;
+        this.meanSojourn = 100 / arrivalRate;
+    }
+
+    /**
+     * Setter for the shape of the Pareto distribution of the time between arrivals.
+     * The closer it is to one, the longer the quiet periods. Defaults to 1.5.
+     * @param paretoShape - the shape, which must be greater than one so the mean exists
+     */
+    public void setParetoShape(double paretoShape) {
+        if (!(paretoShape > 1)) {
+            throw new IllegalArgumentException("The Pareto shape must be greater than 1");
+        }
+        this.paretoShape = paretoShape;
+    }
+
+    /**
+     * Setter for the parameters of MMPP arrivals. Arrivals alternate between a high and
+     * a low rate, spending an exponentially distributed time at each with the given
+     * mean; the rates average out to the generator's arrival rate. Defaults to a ratio
+     * of 10 and a mean time of 100 mean gaps between arrivals.
+     * @param burstRatio - the high rate divided by the low rate, at least one
+     * @param meanSojourn - the mean time spent at one rate before switching
+     */
+    public void setBurstiness(double burstRatio, double meanSojourn) {
+        if (!(burstRatio >= 1) || !(meanSojourn > 0)) {
+            throw new IllegalArgumentException("The burst ratio must be at least 1 and " +
+                    "the mean sojourn time positive");
+        }
+        this.burstRatio = burstRatio;
+        this.meanSojourn = meanSojourn;
+    }
+
+    /**
+     * Generates a work load of the given number of processes, in order of arrival. The
+     * first process arrives at time 0.
+     * @param numProcesses - the number of processes to generate
+     * @return Workload - the generated work load
+     */
+    public Workload generate(int numProcesses) {
+        int[] arrivalTimes = new int[numProcesses];
+        int[] burstLengths = new int[numProcesses];
+        Source source = new Source(numProcesses);
+        for (int i = 0; i < numProcesses; i++) {
+            source.advance();
+            arrivalTimes[i] = source.getArrivalTime();
+            burstLengths[i] = source.getBurstLength();
+        }
+        return new Workload(arrivalTimes, burstLengths);
+    }
+
+    /**
+     * Generates the same work load as generate(), using every core of the common
+     * ForkJoinPool. The result is the same no matter how many threads take part.
+     * @param numProcesses - the number of processes to generate
+     * @return Workload - the generated work load
+     */
+    public Workload generateParallel(int numProcesses) {
+        int blocks = (numProcesses + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        SplittableRandom root = new SplittableRandom(this.seed);
+        SplittableRandom[] randoms = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            randoms[b] = root.split();
+        }
+        // Generate every block from time 0, keeping the times as doubles
+        double[] localTimes = new double[numProcesses];
+        int[] burstLengths = new int[numProcesses];
+        double[] blockLengths = new double[blocks];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            Block block = new Block(randoms[b]);
+            int end = Math.min(numProcesses, (b + 1) * BLOCK_SIZE);
+            for (int i = b * BLOCK_SIZE; i < end; i++) {
+                block.next();
+                localTimes[i] = block.arrival;
+                burstLengths[i] = block.burst;
+            }
+            blockLengths[b] = block.time;
+        });
+        // Each block starts where the previous one ends. The sums are taken in the
+        // same order as stream() takes them, so the rounding is the same too.
+        double[] offsets = new double[blocks];
+        for (int b = 1; b < blocks; b++) {
+            offsets[b] = offsets[b - 1] + blockLengths[b - 1];
+        }
+        int[] arrivalTimes = new int[numProcesses];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int end = Math.min(numProcesses, (b + 1) * BLOCK_SIZE);
+            for (int i = b * BLOCK_SIZE; i < end; i++) {
+                arrivalTimes[i] = toArrivalTime(offsets[b] + localTimes[i]);
+            }
+        });
+        return new Workload(arrivalTimes, burstLengths);
+    }
+
+    /**
+     * Returns a source that generates the same processes as generate(), one at a time
+     * as it is advanced, so a work load of any size can be simulated or written out
+     * without being held in memory.
+     * @param numProcesses - the number of processes to generate
+     * @return ArrivalSource - a source of the generated processes
+     */
+    public ArrivalSource stream(long numProcesses) {
+        return new Source(numProcesses);
+    }
+
+    /**
+     * Generates the given number of processes straight into a binary work load.
+     * @param writer - the writer to write the processes with
+     * @param numProcesses - the number of processes to generate
+     * @throws IOException - thrown if the writer can't write
+     */
+    public void writeTo(BinaryWorkloadWriter writer, long numProcesses)
+            throws IOException {
+        Source source = new Source(numProcesses);
+        while (source.advance()) {
+            writer.write(source.getArrivalTime(), source.getBurstLength());
+        }
+    }
+
+    // Rounds a time to a whole unit, saturating at the latest arrival time there is.
+    private static int toArrivalTime(double time) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(time));
+    }
+
+    // Generates processes one at a time, a block at a time.
+    private class Source implements ArrivalSource {
+        private final SplittableRandom root;
+        private final long numProcesses;
+        private long index;
+        private Block block;
+        // the time the current block starts at
+        private double offset;
+        private int arrivalTime;
+        private int burstLength;
+
+        Source(long numProcesses) {
+            this.root = new SplittableRandom(seed);
+            this.numProcesses = numProcesses;
+            this.index = 0;
+            this.offset = 0;
+        }
+
+        @Override
+        public boolean advance() {
+            if (this.index == this.numProcesses) {
+                return false;
+            }
+            if (this.index % BLOCK_SIZE == 0) {
+                if (this.block != null) {
+                    this.offset += this.block.time;
+                }
+                this.block = new Block(this.root.split());
+            }
+            this.block.next();
+            this.arrivalTime = toArrivalTime(this.offset + this.block.arrival);
+            this.burstLength = this.block.burst;
+            this.index++;
+            return true;
+        }
+
+        @Override
+        public int getArrivalTime() {
+            return this.arrivalTime;
+        }
+
+        @Override
+        public int getBurstLength() {
+            return this.burstLength;
+        }
+    }
+
+    // Generates the processes of one block, one at a time, with times that start at 0.
+    private class Block {
+        private final SplittableRandom random;
+        // the arrival time and burst length of the process generated last
+        private double arrival;
+        private int burst;
+        // the arrival time of the next process
+        private double time;
+        // for MMPP: whether arrivals are at the high rate, and for how much longer
+        private boolean high;
+        private double sojournLeft;
+
+        Block(SplittableRandom random) {
+            this.random = random;
+            this.time = 0;
+            if (arrivalProcess == ArrivalProcess.MMPP) {
+                // both rates are equally likely in the long run, and the time left at
+                // one is exponential no matter how long it has lasted already
+                this.high = random.nextBoolean();
+                this.sojournLeft = exponential(meanSojourn);
+            }
+        }
+
+        // Generates the next process.
+        void next() {
+            this.arrival = this.time;
+            this.burst = burstDistribution.sample(this.random, meanBurst);
+            this.time += gap();
+        }
+
+        // Draws the time between two arrivals.
+        private double gap() {
+            return switch (arrivalProcess) {
+                case POISSON -> exponential(1 / arrivalRate);
+                case PARETO -> (paretoShape - 1) / (paretoShape * arrivalRate)
+                        / Math.pow(1 - this.random.nextDouble(), 1 / paretoShape);
+                case MMPP -> modulatedGap();
+            };
+        }
+
+        // Draws the time to the next arrival at the current rate; if the rate changes
+        // before then, the rest of the gap is drawn again at the new rate, which is
+        // exact because the exponential distribution is memoryless.
+        private double modulatedGap() {
+            double low = 2 * arrivalRate / (1 + burstRatio);
+            double elapsed = 0;
+            while (true) {
+                double gap = exponential(1 / (this.high ? low * burstRatio : low));
+                if (gap <= this.sojournLeft) {
+                    this.sojournLeft -= gap;
+                    return elapsed + gap;
+                }
+                elapsed += this.sojournLeft;
+                this.high = !this.high;
+                this.sojournLeft = exponential(meanSojourn);
+            }
+        }
+
+        // Draws from the exponential distribution with the given mean.
+        private double exponential(double mean) {
+            return -mean * Math.log(1 - this.random.nextDouble());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.bloomu.huskies.bmb56279;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of reading the binary formats from channels whose size is unknown.
+ *
+ * @author Brett Bernardi
+ */
+class BinaryFormatTest {
+
+    /**
+     * A work load of more records than are allocated up front is read back whole from
+     * a stream.
+     */
+    @Test
+    void readsLargeWorkloadFromStream() throws IOException, ImproperArguments {
+        int count = 3 * BinaryFormat.BUFFER_SIZE / BinaryFormat.WORKLOAD_RECORD_SIZE + 1;
+        int[] arrivalTimes = new int[count];
+        int[] burstLengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            arrivalTimes[i] = i;
+            burstLengths[i] = 1 + i % 7;
+        }
+        byte[] bytes = write(new Workload(arrivalTimes, burstLengths));
+        Workload workLoad = BinaryFormat.readWorkload(stream(bytes));
+        assertEquals(count, workLoad.size());
+        assertEquals(count - 1, workLoad.getArrivalTime(count - 1));
+        assertEquals(1 + (count - 1) % 7, workLoad.getBurstLength(count - 1));
+    }
+
+    /**
+     * A stream whose header claims far more processes than it holds ends too soon,
+     * before arrays for every claimed process are allocated.
+     */
+    @Test
+    void streamShorterThanHeaderEndsTooSoon() throws IOException {
+        byte[] bytes = write(new Workload(new int[] {0}, new int[] {1}));
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(8, Integer.MAX_VALUE);
+        assertThrows(EOFException.class, () -> BinaryFormat.readWorkload(stream(bytes)));
+    }
+
+    // Writes a work load to an array of bytes.
+    private static byte[] write(Workload workLoad) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryFormat.writeWorkload(Channels.newChannel(out), workLoad);
+        return out.toByteArray();
+    }
+
+    // A channel over an array of bytes whose size it doesn't know.
+    private static ReadableByteChannel stream(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+}
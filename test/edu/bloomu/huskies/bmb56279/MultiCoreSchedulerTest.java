@@ -0,0 +1,37 @@
+package edu.bloomu.huskies.bmb56279;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the MultiCoreScheduler against the single core Scheduler.
+ *
+ * @author Brett Bernardi
+ */
+class MultiCoreSchedulerTest {
+
+    /**
+     * With one core, a shorter job arriving while the core is still switching to a
+     * process waits for the switch to end before it competes for the core, just as it
+     * does in the Scheduler, so the two charge the same switches and waiting times.
+     */
+    @Test
+    void oneCoreFinishesInterruptedSwitchLikeScheduler() throws ImproperArguments {
+        Workload workLoad = Workload.parse("0 6 1 2 2 1 3 4".split(" "));
+        SchedulerConfig config = new SchedulerConfig();
+        config.setContextSwitchCost(3);
+        for (SchedulingType type : new SchedulingType[] {SchedulingType.FCFS,
+                SchedulingType.SJFNP, SchedulingType.SRTF}) {
+            Scheduler single = new Scheduler(workLoad, type,
+                    SimulationEngine.EVENT_DRIVEN, config);
+            single.simulate();
+            MultiCoreScheduler multi = new MultiCoreScheduler(workLoad, type, 1,
+                    LoadBalancing.GLOBAL_QUEUE, config);
+            multi.simulate();
+            assertEquals(single.getSwitchTime(), multi.getSwitchTime(), type.toString());
+            assertEquals(single.getAvgWaitTime(), multi.getAvgWaitTime(),
+                    type.toString());
+        }
+    }
+}
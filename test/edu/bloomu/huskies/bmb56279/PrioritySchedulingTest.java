@@ -0,0 +1,42 @@
+package edu.bloomu.huskies.bmb56279;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of priority scheduling with aging.
+ *
+ * @author Brett Bernardi
+ */
+class PrioritySchedulingTest {
+
+    /**
+     * A process of the lowest priority, facing a stream of the most urgent processes
+     * that keeps the CPU busy, must age to the top and then run its whole burst: it
+     * keeps the priority it aged to, so the stream can't preempt it.
+     */
+    @Test
+    void agedProcessIsNotStarvedByPreemption() throws ImproperArguments {
+        StringBuilder input = new StringBuilder("0 30@39");
+        for (int time = 0; time <= 2000; time += 5) {
+            input.append(' ').append(time).append(" 5@0");
+        }
+        Workload workLoad = Workload.parse(input.toString().split(" "));
+        for (SimulationEngine engine : SimulationEngine.values()) {
+            Scheduler scheduler = new Scheduler(workLoad, SchedulingType.PRIORITY_P,
+                    engine);
+            scheduler.simulate();
+            Timeline timeline = scheduler.getTimeline();
+            StringBuilder runs = new StringBuilder();
+            for (int i = 0; i < timeline.size(); i++) {
+                if (timeline.getId(i) == 0) {
+                    runs.append(timeline.getStart(i)).append('+')
+                            .append(timeline.getLength(i)).append(' ');
+                }
+            }
+            // it ages by one level every 10 units, from 39 to 0
+            assertEquals("390+30 ", runs.toString(), engine.toString());
+        }
+    }
+}
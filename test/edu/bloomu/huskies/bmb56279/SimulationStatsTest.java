@@ -0,0 +1,49 @@
+package edu.bloomu.huskies.bmb56279;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the instrumentation counters of a simulation.
+ *
+ * @author Brett Bernardi
+ */
+class SimulationStatsTest {
+
+    /**
+     * A process that comes back from I/O and waits on the ready queue was not
+     * preempted, so a non-preemptive scheduler never counts a preemption.
+     */
+    @Test
+    void wokenProcessIsNotPreempted() throws ImproperArguments {
+        assertEquals(0, preemptions("0 2,3,2 5 1", SchedulingType.SJFNP));
+    }
+
+    /**
+     * A shorter job arriving while a long one runs preempts it under SRTF, and only
+     * the once.
+     */
+    @Test
+    void shorterArrivalPreempts() throws ImproperArguments {
+        assertEquals(1, preemptions("0 8 1 4 2 9 3 5", SchedulingType.SRTF));
+    }
+
+    // Simulates the work load under both engines, checks that they agree, and returns
+    // the number of preemptions counted.
+    private static long preemptions(String workLoad, SchedulingType type)
+            throws ImproperArguments {
+        long count = -1;
+        for (SimulationEngine engine : SimulationEngine.values()) {
+            Scheduler scheduler = new Scheduler(workLoad.split(" "), type, engine);
+            SimulationStats stats = new SimulationStats();
+            scheduler.setStats(stats);
+            scheduler.simulate();
+            if (count >= 0) {
+                assertEquals(count, stats.getPreemptions(), engine.toString());
+            }
+            count = stats.getPreemptions();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,76 @@
+package edu.bloomu.huskies.bmb56279;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of checkpointing a StreamingScheduler.
+ *
+ * @author Brett Bernardi
+ */
+class StreamingSchedulerTest {
+
+    /**
+     * Every process arrives at time 0, so the whole simulation happens after the
+     * source is used up. Checkpoints must still be written while it finishes, and a
+     * simulation restored from the last one must end the same way.
+     */
+    @Test
+    void checkpointsWhileFinishing(@TempDir Path directory)
+            throws IOException, ImproperArguments {
+        int[] arrivalTimes = {0, 0, 0};
+        int[] burstLengths = {50, 20, 30};
+        StreamingScheduler reference = new StreamingScheduler(
+                new ArraySource(arrivalTimes, burstLengths), SchedulingType.SJFNP, true);
+        reference.simulate();
+
+        Path file = directory.resolve("checkpoint");
+        StreamingScheduler scheduler = new StreamingScheduler(
+                new ArraySource(arrivalTimes, burstLengths), SchedulingType.SJFNP, true);
+        scheduler.simulate(file, 10);
+        assertTrue(Files.exists(file));
+
+        StreamingScheduler restored = StreamingScheduler.restore(file,
+                new ArraySource(arrivalTimes, burstLengths));
+        assertTrue(restored.getTime() >= 90, "last checkpoint at " + restored.getTime());
+        restored.simulate();
+        assertEquals(reference.getTime(), restored.getTime());
+        assertEquals(reference.getWaitingTimeHistogram().toString(),
+                restored.getWaitingTimeHistogram().toString());
+        assertEquals(reference.getTimeline().format(ProcessNames.DEFAULT),
+                restored.getTimeline().format(ProcessNames.DEFAULT));
+    }
+
+    // A source of processes held in two arrays.
+    private static final class ArraySource implements ArrivalSource {
+        private final int[] arrivalTimes;
+        private final int[] burstLengths;
+        private int index = -1;
+
+        ArraySource(int[] arrivalTimes, int[] burstLengths) {
+            this.arrivalTimes = arrivalTimes;
+            this.burstLengths = burstLengths;
+        }
+
+        @Override
+        public boolean advance() {
+            return ++this.index < this.arrivalTimes.length;
+        }
+
+        @Override
+        public int getArrivalTime() {
+            return this.arrivalTimes[this.index];
+        }
+
+        @Override
+        public int getBurstLength() {
+            return this.burstLengths[this.index];
+        }
+    }
+}